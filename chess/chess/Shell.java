@@ -7,6 +7,7 @@ import chess.model.GameMode;
 import chess.model.Pawn;
 import chess.model.Phase;
 import chess.model.Player;
+import chess.model.SearchMode;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -41,6 +42,14 @@ public class Shell {
           + "can be moved "
           + "are the same as in a normal game of chess."
           + "\r\n"
+          + "ENGINE name - choose the engine of the AI for single player games: LEGACY (the "
+          + "default), ALPHA_BETA, DEPTH_FIRST, PRINCIPAL_VARIATION, SELECTIVE, LAZY_SMP, "
+          + "ROOT_SPLIT or MONTE_CARLO."
+          + "\r\n"
+          + "PONDER ON|OFF - let the AI of single player games think while it is your turn, "
+          + "or stop it from doing so. Only the engines DEPTH_FIRST, PRINCIPAL_VARIATION and "
+          + "SELECTIVE can do so."
+          + "\r\n"
           + "PRINT - the current game field will be displayed, in company with the "
           + "current game phase and the current player."
           + "\r\n"
@@ -51,6 +60,8 @@ public class Shell {
           + "The player who reaches the other side first wins the game. Good luck mate!";
 
   private Chess chess;
+  private SearchMode searchMode = SearchMode.LEGACY;
+  private boolean pondering;
 
   /**
    * Read and process input until the quit command has been entered.
@@ -111,12 +122,20 @@ public class Shell {
         }
       } else if (tokens[0].toUpperCase().equals("NEW")
           && tokens[1].toUpperCase().equals("HOTSEAT")) {
+        stopPondering();
         chess = new Chess();
         chess.setGameMode(GameMode.HOTSEAT);
       } else if (tokens[0].toUpperCase().equals("NEW")
           && tokens[1].toUpperCase().equals("SINGLE")) {
+        stopPondering();
         chess = new Chess();
         chess.setGameMode(GameMode.SINGLE);
+        chess.setSearchMode(searchMode);
+        chess.setPondering(pondering);
+      } else if (tokens[0].toUpperCase().equals("ENGINE") && tokens.length == 2) {
+        handleEngine(tokens[1].toUpperCase());
+      } else if (tokens[0].toUpperCase().equals("PONDER") && tokens.length == 2) {
+        handlePondering(tokens[1].toUpperCase());
       } else if (tokens[0].toUpperCase().equals("MOVE") && tokens.length == 3) {
         handleMove(tokens);
       } else {
@@ -130,6 +149,58 @@ public class Shell {
     }
   }
 
+  /**
+   * Select the engine of the AI for the current and all following single player games.
+   *
+   * @param name the name of the search mode, like DEPTH_FIRST
+   */
+  private void handleEngine(String name) {
+    try {
+      searchMode = SearchMode.valueOf(name);
+    } catch (IllegalArgumentException e) {
+      System.out.println(
+          ERR_MSG + "Unknown engine: '" + name + "'. Type HELP in order to see valid engines.");
+      return;
+    }
+    if (chess != null && chess.getGameMode() == GameMode.SINGLE) {
+      stopPondering();
+      chess.setSearchMode(searchMode);
+    }
+    System.out.println("The AI uses the engine " + searchMode + ".");
+  }
+
+  /**
+   * Switch thinking on the time of the user on or off for the current and all following single
+   * player games.
+   *
+   * @param option ON to switch pondering on, OFF to switch it off
+   */
+  private void handlePondering(String option) {
+    if (option.equals("ON")) {
+      pondering = true;
+    } else if (option.equals("OFF")) {
+      pondering = false;
+    } else {
+      System.out.println(
+          ERR_MSG + "Invalid option: '" + option + "'. Type PONDER ON or PONDER OFF.");
+      return;
+    }
+    if (chess != null && chess.getGameMode() == GameMode.SINGLE) {
+      chess.setPondering(pondering);
+    }
+    System.out.println("Pondering is switched " + (pondering ? "on." : "off."));
+  }
+
+  /**
+   * Stop the AI of the current game from thinking on the time of the user, before the game is
+   * replaced by a new one.
+   */
+  private void stopPondering() {
+    if (chess != null) {
+      chess.getMiniMax().stopPondering();
+    }
+  }
+
   /**
    * Checks whether the player before the last valid move and afterwards is the same and prints a
    * conclusive message. If the player didn't change after a valid move, the other player is not
@@ -176,7 +247,7 @@ public class Shell {
       String rowNum = row + 1 + " ";
       StringBuilder line = new StringBuilder(rowNum);
       for (int col = 0; col < GameField.SIZE; col++) {
-        chess.model.Cell currentCell = new chess.model.Cell(col, row);
+        Cell currentCell = Cell.of(col, row);
         Optional<Pawn> maybePawn = chess.getState().getField().get(currentCell);
         if (maybePawn.isPresent()) {
           String inputPlayer = maybePawn.get().getPlayer().toString();
@@ -244,10 +315,8 @@ public class Shell {
    */
   private void handleMove(String[] token) {
     if (chess != null) {
-      chess.model.Cell fromCell =
-          new chess.model.Cell(parseColumnValue(token[1]), parseRowValue(token[1]));
-      chess.model.Cell toCell =
-          new chess.model.Cell(parseColumnValue(token[2]), parseRowValue(token[2]));
+      Cell fromCell = Cell.of(parseColumnValue(token[1]), parseRowValue(token[1]));
+      Cell toCell = Cell.of(parseColumnValue(token[2]), parseRowValue(token[2]));
       Player currentPlayerLastMove = chess.getState().getCurrentPlayer();
       if (chess.move(fromCell, toCell)) {
         if (chess.getState().getCurrentPhase() == Phase.FINISHED) {
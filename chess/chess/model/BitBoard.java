@@ -0,0 +1,276 @@
+package chess.model;
+
+import java.io.Serializable;
+import java.util.Random;
+
+/**
+ * The class BitBoard holds the positions of all pawns on the game field in two 64 bit masks, one
+ * for each player. Bit number <code>row * 8 + column</code> of a mask is set if the player has a
+ * pawn on the corresponding cell. Cells are therefore addressed by a square index from 0 (A1) to 63
+ * (H8). This compact representation is used by the game logic and the minimax algorithm, while
+ * {@link GameField} provides the cell based view on it.
+ *
+ * <p>Every board also maintains a Zobrist key: a 64 bit hash of the pawn positions that is the
+ * exclusive or of one random number per occupied square and player. Setting or removing a pawn
+ * updates the key with a single exclusive or, so the key is always available without scanning the
+ * board.
+ *
+ * <p>An {@link IncrementalEvaluation} can be attached to a board. It is informed before and after
+ * every change of a square, so that it can keep its running totals up to date.
+ */
+final class BitBoard implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  static final long FILE_A = 0x0101010101010101L;
+  static final long FILE_H = FILE_A << 7;
+  static final long FIRST_RANK = 0xFFL;
+  static final long LAST_RANK = FIRST_RANK << 56;
+
+  private static final long ZOBRIST_SEED = 0x5DEECE66DL;
+  private static final long[][] ZOBRIST_KEYS = createZobristKeys();
+
+  private long whitePawns;
+  private long blackPawns;
+  private long key;
+  private transient IncrementalEvaluation incrementalEvaluation;
+
+  /** Create an empty board. */
+  BitBoard() {}
+
+  /**
+   * Take over the pawns of another board. An evaluation attached to the other board is not taken
+   * over.
+   *
+   * @param other the board whose pawns are copied.
+   */
+  void copyFrom(BitBoard other) {
+    this.whitePawns = other.whitePawns;
+    this.blackPawns = other.blackPawns;
+    this.key = other.key;
+  }
+
+  /**
+   * Create the random numbers for the Zobrist keys. A fixed seed is used, so that the keys are the
+   * same in every run of the program.
+   *
+   * @return one random number per player and square
+   */
+  private static long[][] createZobristKeys() {
+    Random random = new Random(ZOBRIST_SEED);
+    long[][] keys = new long[Player.values().length][GameField.SIZE * GameField.SIZE];
+    for (long[] keysOfPlayer : keys) {
+      for (int square = 0; square < keysOfPlayer.length; square++) {
+        keysOfPlayer[square] = random.nextLong();
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * Return the random number that is used for a pawn of the given player on the given square.
+   *
+   * @param player the owner of the pawn
+   * @param square the square of the pawn
+   * @return the Zobrist key of the pawn
+   */
+  static long zobristKey(Player player, int square) {
+    return ZOBRIST_KEYS[player.ordinal()][square];
+  }
+
+  /**
+   * Attach an evaluation that is informed about every change of the board. An evaluation attached
+   * before is detached.
+   *
+   * @param evaluation the evaluation to inform, or null to detach the current one.
+   */
+  void setIncrementalEvaluation(IncrementalEvaluation evaluation) {
+    this.incrementalEvaluation = evaluation;
+  }
+
+  /**
+   * Getter: returns the evaluation that is informed about every change of the board.
+   *
+   * @return the attached evaluation, or null if there is none.
+   */
+  IncrementalEvaluation getIncrementalEvaluation() {
+    return incrementalEvaluation;
+  }
+
+  /**
+   * Return the Zobrist key of the current pawn positions.
+   *
+   * @return the hash of all pawns on the board
+   */
+  long getKey() {
+    return key;
+  }
+
+  /**
+   * Convert a column and a row into the square index used by the bit masks.
+   *
+   * @param column the column, from 0 to 7
+   * @param row the row, from 0 to 7
+   * @return the square index, from 0 to 63
+   */
+  static int square(int column, int row) {
+    return row * GameField.SIZE + column;
+  }
+
+  /**
+   * Return the column of a square index.
+   *
+   * @param square the square index
+   * @return the column, from 0 to 7
+   */
+  static int column(int square) {
+    return square & (GameField.SIZE - 1);
+  }
+
+  /**
+   * Return the row of a square index.
+   *
+   * @param square the square index
+   * @return the row, from 0 to 7
+   */
+  static int row(int square) {
+    return square >>> 3;
+  }
+
+  /**
+   * Return the mask of all squares within the given row.
+   *
+   * @param row the row, from 0 to 7
+   * @return a mask that has the eight bits of the row set
+   */
+  static long rowMask(int row) {
+    return FIRST_RANK << (row * GameField.SIZE);
+  }
+
+  /**
+   * Return the mask of all pawns of a player.
+   *
+   * @param player the player whose pawns are requested
+   * @return a mask with one bit set for every pawn of the player
+   */
+  long getPawns(Player player) {
+    return player == Player.WHITE ? whitePawns : blackPawns;
+  }
+
+  /**
+   * Return the mask of all occupied squares.
+   *
+   * @return a mask with one bit set for every pawn on the board
+   */
+  long getOccupied() {
+    return whitePawns | blackPawns;
+  }
+
+  /**
+   * Check whether a pawn of any player stands on the given square.
+   *
+   * @param square the inspected square
+   * @return true if the square is occupied, false otherwise
+   */
+  boolean isOccupied(int square) {
+    return ((whitePawns | blackPawns) >>> square & 1L) != 0;
+  }
+
+  /**
+   * Return the player whose pawn stands on the given square.
+   *
+   * @param square the inspected square
+   * @return the owner of the pawn, or null if the square is empty
+   */
+  Player getPlayer(int square) {
+    if ((whitePawns >>> square & 1L) != 0) {
+      return Player.WHITE;
+    } else if ((blackPawns >>> square & 1L) != 0) {
+      return Player.BLACK;
+    }
+    return null;
+  }
+
+  /**
+   * Put a pawn of the given player on a square. A pawn of the opponent on that square is removed.
+   *
+   * @param square the square to set the pawn on
+   * @param player the owner of the pawn
+   */
+  void set(int square, Player player) {
+    if (incrementalEvaluation != null) {
+      incrementalEvaluation.beforeChange(square);
+    }
+    removePawn(square);
+    long bit = 1L << square;
+    if (player == Player.WHITE) {
+      whitePawns |= bit;
+    } else {
+      blackPawns |= bit;
+    }
+    key ^= zobristKey(player, square);
+    if (incrementalEvaluation != null) {
+      incrementalEvaluation.afterChange(square);
+    }
+  }
+
+  /**
+   * Remove any pawn from a square.
+   *
+   * @param square the square to clear
+   */
+  void clear(int square) {
+    if (incrementalEvaluation != null) {
+      incrementalEvaluation.beforeChange(square);
+    }
+    removePawn(square);
+    if (incrementalEvaluation != null) {
+      incrementalEvaluation.afterChange(square);
+    }
+  }
+
+  /**
+   * Remove any pawn from a square without informing the attached evaluation.
+   *
+   * @param square the square to clear
+   */
+  private void removePawn(int square) {
+    long bit = 1L << square;
+    if ((whitePawns & bit) != 0) {
+      whitePawns &= ~bit;
+      key ^= zobristKey(Player.WHITE, square);
+    } else if ((blackPawns & bit) != 0) {
+      blackPawns &= ~bit;
+      key ^= zobristKey(Player.BLACK, square);
+    }
+  }
+
+  /**
+   * Count the pawns of a player.
+   *
+   * @param player the player whose pawns are counted
+   * @return the number of pawns of the player on the field
+   */
+  int countPawns(Player player) {
+    return Long.bitCount(getPawns(player));
+  }
+
+  /**
+   * Return the pawns of a player that have at least one possible move: the pawns whose cell
+   * straight ahead is empty and the pawns that can capture a pawn of the opponent diagonally ahead.
+   * A double step is only possible if the single step is, so it needs no test of its own. The mask
+   * is computed with a few shifts of the masks of both players, without looking at single pawns.
+   *
+   * @param player the player whose pawns are inspected
+   * @return a mask with one bit set for every pawn of the player that can move
+   */
+  long getMobilePawns(Player player) {
+    long occupied = whitePawns | blackPawns;
+    if (player == Player.WHITE) {
+      long pushers = whitePawns & ~LAST_RANK & ~(occupied >>> GameField.SIZE);
+      return pushers | (whitePawns & BitBoardEvaluation.blackAttacks(blackPawns));
+    }
+    long pushers = blackPawns & ~FIRST_RANK & ~(occupied << GameField.SIZE);
+    return pushers | (blackPawns & BitBoardEvaluation.whiteAttacks(whitePawns));
+  }
+}
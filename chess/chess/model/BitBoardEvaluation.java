@@ -0,0 +1,152 @@
+package chess.model;
+
+import static chess.model.BitBoard.FILE_A;
+import static chess.model.BitBoard.FILE_H;
+import static chess.model.Chess.LAST_ROW;
+import static chess.model.MiniMaxAlgorithm.WINNING_EVALUATION_VALUE;
+
+/**
+ * The class BitBoardEvaluation rates positions with the same formulas as {@link MiniMaxAlgorithm},
+ * but looks at all pawns of a player at once. Shifting the bit mask of a player's pawns moves all
+ * pawns by one cell at the same time, so questions like "which pawns are attacked" become a few
+ * shifts and masks, and counting becomes {@link Long#bitCount(long)}. No term needs a loop over the
+ * pawns or the cells of the field.
+ *
+ * <p>Shifting a mask by one column moves the pawns of the outer columns onto the opposite edge of
+ * the neighbouring row. The masks {@link BitBoard#FILE_A} and {@link BitBoard#FILE_H} remove these
+ * pawns again.
+ */
+final class BitBoardEvaluation implements StrategyEvaluation {
+
+  private static final long NOT_FILE_A = ~FILE_A;
+  private static final long NOT_FILE_H = ~FILE_H;
+  private static final long ROWS_WITH_BIT_0 = 0xFF00FF00FF00FF00L;
+  private static final long ROWS_WITH_BIT_1 = 0xFFFF0000FFFF0000L;
+  private static final long ROWS_WITH_BIT_2 = 0xFFFFFFFF00000000L;
+  private static final int ROW_SHIFT = GameField.SIZE;
+
+  @Override
+  public double evaluateState(Node node, int depth) {
+    double valuePawnCountOnField = evaluatePawnCountOnField(node);
+    double valueDistanceToOppositeLine = evaluateDistanceToOppositeLine(node);
+    double valueRiskOfCapture = evaluateRiskOfCapture(node);
+    double valueIsolationOfPawns = evaluateIsolationOfPawns(node);
+    double valueClosenessToWinning = evaluateClosenessToWinning(node, depth);
+    return valuePawnCountOnField
+        + valueDistanceToOppositeLine
+        + valueRiskOfCapture
+        + valueIsolationOfPawns
+        + valueClosenessToWinning;
+  }
+
+  @Override
+  public double evaluatePawnCountOnField(Node node) {
+    BitBoard board = boardOf(node);
+    return Long.bitCount(board.getPawns(Player.BLACK))
+        - (1.5 * Long.bitCount(board.getPawns(Player.WHITE)));
+  }
+
+  @Override
+  public double evaluateDistanceToOppositeLine(Node node) {
+    BitBoard board = boardOf(node);
+    long whitePawns = board.getPawns(Player.WHITE);
+    long blackPawns = board.getPawns(Player.BLACK);
+    int humanDistance = sumOfRows(whitePawns);
+    int machineDistance = LAST_ROW * Long.bitCount(blackPawns) - sumOfRows(blackPawns);
+    return machineDistance - 1.5 * humanDistance;
+  }
+
+  @Override
+  public double evaluateRiskOfCapture(Node node) {
+    BitBoard board = boardOf(node);
+    long whitePawns = board.getPawns(Player.WHITE);
+    long blackPawns = board.getPawns(Player.BLACK);
+    long attackedByWhite = whiteAttacks(whitePawns);
+    long attackedByBlack = blackAttacks(blackPawns);
+    int humanPawnsAtRisk = Long.bitCount(whitePawns & attackedByBlack & ~attackedByWhite);
+    int machinePawnsAtRisk = Long.bitCount(blackPawns & attackedByWhite & ~attackedByBlack);
+    return humanPawnsAtRisk - (1.5 * machinePawnsAtRisk);
+  }
+
+  @Override
+  public double evaluateIsolationOfPawns(Node node) {
+    BitBoard board = boardOf(node);
+    long whitePawns = board.getPawns(Player.WHITE);
+    long blackPawns = board.getPawns(Player.BLACK);
+    int humanPawnsIsolated = Long.bitCount(whitePawns & ~neighbours(whitePawns));
+    int machinePawnsIsolated = Long.bitCount(blackPawns & ~neighbours(blackPawns));
+    return humanPawnsIsolated - (1.5 * machinePawnsIsolated);
+  }
+
+  @Override
+  public double evaluateClosenessToWinning(Node node, int lookAhead) {
+    GameState state = node.getChessStateOfNode().getState();
+    Player winner = state.getWinnerOrNull();
+    if (state.getCurrentPhase() == Phase.FINISHED && winner != null) {
+      if (winner == Player.WHITE) {
+        return WINNING_EVALUATION_VALUE / lookAhead;
+      } else {
+        return 0 - (1.5 * (WINNING_EVALUATION_VALUE / lookAhead));
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Return the bit board of the game a node represents.
+   *
+   * @param node the node that is evaluated.
+   * @return the pawns of the node's game.
+   */
+  private static BitBoard boardOf(Node node) {
+    return node.getChessStateOfNode().getState().getField().getBitBoard();
+  }
+
+  /**
+   * Sum up the rows of all pawns of a mask. The row of a square consists of the bits 3 to 5 of its
+   * index, so the sum is the number of pawns in rows with bit 0 set, plus twice the number in rows
+   * with bit 1 set, plus four times the number in rows with bit 2 set.
+   *
+   * @param pawns the mask of the pawns.
+   * @return the sum of the rows of the pawns.
+   */
+  static int sumOfRows(long pawns) {
+    return Long.bitCount(pawns & ROWS_WITH_BIT_0)
+        + 2 * Long.bitCount(pawns & ROWS_WITH_BIT_1)
+        + 4 * Long.bitCount(pawns & ROWS_WITH_BIT_2);
+  }
+
+  /**
+   * Return the cells white pawns can capture on: one row up and one column to the left or right.
+   *
+   * @param whitePawns the mask of the white pawns.
+   * @return the mask of the attacked cells.
+   */
+  static long whiteAttacks(long whitePawns) {
+    return (whitePawns << 7 & NOT_FILE_H) | (whitePawns << 9 & NOT_FILE_A);
+  }
+
+  /**
+   * Return the cells black pawns can capture on: one row down and one column to the left or right.
+   *
+   * @param blackPawns the mask of the black pawns.
+   * @return the mask of the attacked cells.
+   */
+  static long blackAttacks(long blackPawns) {
+    return (blackPawns >>> 7 & NOT_FILE_A) | (blackPawns >>> 9 & NOT_FILE_H);
+  }
+
+  /**
+   * Return the cells that have at least one of the given pawns among their eight neighbours. A
+   * pawn is not its own neighbour, so a pawn lies within the result only if another pawn of the
+   * mask stands next to it.
+   *
+   * @param pawns the mask of the pawns.
+   * @return the mask of the cells next to a pawn.
+   */
+  static long neighbours(long pawns) {
+    long sideways = (pawns << 1 & NOT_FILE_A) | (pawns >>> 1 & NOT_FILE_H);
+    long rowAndSideways = pawns | sideways;
+    return sideways | rowAndSideways << ROW_SHIFT | rowAndSideways >>> ROW_SHIFT;
+  }
+}
@@ -1,16 +1,22 @@
 package chess.model;
 
-import java.util.Objects;
-
 /**
  * The class Cell is used to handle the fields on the chess board (= a cell) by holding row and
  * column values of the specific field and providing methods to provide this information for further
  * operations.
+ *
+ * <p>Cells cannot be changed. The 64 cells of the game field exist once, as a table indexed by the
+ * square index ({@code row * 8 + column}) that the {@link BitBoard} uses, and {@link #of(int,
+ * int)} and {@link #ofSquare(int)} return the cells of that table instead of creating new ones.
+ * Only cells outside of the game field, which the user interfaces create while validating their
+ * input, are separate objects.
  */
 public class Cell implements Comparable<Cell> {
 
-  private int column;
-  private int row;
+  private static final Cell[] CELLS = createCells();
+
+  private final int column;
+  private final int row;
 
   /**
    * This constructor takes two integers for the column and the row value and create a object of the
@@ -19,11 +25,53 @@ public class Cell implements Comparable<Cell> {
    * @param column the number that represents the column
    * @param row the number that represents the row
    */
-  public Cell(int column, int row) {
+  private Cell(int column, int row) {
     this.column = column;
     this.row = row;
   }
 
+  /**
+   * Create the table of all cells of the game field.
+   *
+   * @return the cells, indexed by their square index
+   */
+  private static Cell[] createCells() {
+    Cell[] cells = new Cell[GameField.SIZE * GameField.SIZE];
+    for (int square = 0; square < cells.length; square++) {
+      cells[square] = new Cell(square % GameField.SIZE, square / GameField.SIZE);
+    }
+    return cells;
+  }
+
+  /**
+   * Return the cell with the given column and row. A cell of the game field is taken from the table
+   * of all cells, so no object is created; a cell outside of the game field is created anew.
+   *
+   * @param column the number that represents the column
+   * @param row the number that represents the row
+   * @return the cell with the given coordinates
+   */
+  public static Cell of(int column, int row) {
+    if (column >= 0 && column < GameField.SIZE && row >= 0 && row < GameField.SIZE) {
+      return CELLS[row * GameField.SIZE + column];
+    }
+    return new Cell(column, row);
+  }
+
+  /**
+   * Return the cell of the game field with the given square index.
+   *
+   * @param square the square index, from 0 (column 0, row 0) to 63 (column 7, row 7)
+   * @return the cell of the square
+   * @throws IllegalArgumentException if the square index lies outside of the game field
+   */
+  public static Cell ofSquare(int square) {
+    if (square < 0 || square >= CELLS.length) {
+      throw new IllegalArgumentException("Square index is out of bounds: " + square);
+    }
+    return CELLS[square];
+  }
+
   /**
    * Getter to return the column of this cell as integer index. Column values range from 0 to 7 and
    * describe chess columns A to H, respectively.
@@ -44,6 +92,16 @@ public class Cell implements Comparable<Cell> {
     return row;
   }
 
+  /**
+   * Returns the square index of this cell, which numbers the cells of the game field row by row
+   * from 0 to 63. The index is only meaningful for cells within the bounds of the game field.
+   *
+   * @return the square index, <code>row * 8 + column</code>
+   */
+  public int getSquare() {
+    return row * GameField.SIZE + column;
+  }
+
   @Override
   public int compareTo(Cell other) {
     int colDiff = column - other.getColumn();
@@ -55,7 +113,7 @@ public class Cell implements Comparable<Cell> {
 
   @Override
   public int hashCode() {
-    return Objects.hash(column, row);
+    return getSquare();
   }
 
   @Override
@@ -68,7 +126,7 @@ public class Cell implements Comparable<Cell> {
     }
 
     Cell other = (Cell) obj;
-    return Objects.equals(column, other.column) && Objects.equals(row, other.row);
+    return column == other.column && row == other.row;
   }
 
   @Override
@@ -10,8 +10,8 @@ import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -30,8 +30,15 @@ public class Chess implements Model {
   private GameState state;
   private MiniMaxAlgorithm miniMax;
   private Server server;
-  private static final int TWO_FIELDS = 2;
+  private static final int INITIAL_UNDO_CAPACITY = 64;
+  private static final int MOVE_BITS = 12;
+  private static final int MAX_MOVES_PER_PAWN = 4;
+  private static final Player[] PLAYER_CODES = {null, Player.WHITE, Player.BLACK};
+  private static final Phase[] PHASES = Phase.values();
+  private static final long BLACK_TO_MOVE_KEY = 0x9E3779B97F4A7C15L;
   private Player myPlayer;
+  private int[] undoStack = new int[INITIAL_UNDO_CAPACITY];
+  private int undoCount;
 
   /**
    * By initializing an new object of the class Chess, a new game is set up. This means that all the
@@ -53,15 +60,7 @@ public class Chess implements Model {
     String player = (otherChess.state.getCurrentPlayer().toString().toUpperCase());
     this.state.setCurrentPlayer(Player.valueOf(player));
     this.miniMax = otherChess.miniMax;
-    for (int row = LAST_ROW; row >= FIRST_ROW; row--) {
-      for (int col = FIRST_COLUMN; col < GameField.SIZE; col++) {
-        chess.model.Cell currentCell = new chess.model.Cell(col, row);
-        Optional<Pawn> maybePawn = otherChess.getState().getField().get(currentCell);
-        if (maybePawn.isPresent()) {
-          this.state.getField().set(currentCell, maybePawn.get());
-        }
-      }
-    }
+    this.state.getField().getBitBoard().copyFrom(otherChess.getState().getField().getBitBoard());
   }
 
   @Override
@@ -82,21 +81,26 @@ public class Chess implements Model {
 
   /**
    * Execute a move of the KI by determining the best possible move with the minimax algorithm and
-   * executing the move that was declared the best move.
+   * executing the move that was declared the best move. If pondering is switched on, the KI then
+   * starts to think about the predicted reply of its opponent. While the KI thinks, the listeners
+   * are told about the progress of the search with {@link #KI_PROGRESS} events, which are fired
+   * from the thread the KI runs in. If the search is cancelled, the game is left unchanged.
    */
   public void executeKiMove() {
-    Cell moveTo = null;
+    getMiniMax().setProgressListener(
+        progress -> support.firePropertyChange(KI_PROGRESS, null, progress));
     getMiniMax().executeMinimax(this);
-    for (Node child : getMiniMax().getTree().getRoot().getChildren()) {
-      if (child.getEvaluationValue() == getMiniMax().getTree().getRoot().getEvaluationValue()) {
-        move(child.getMovedFrom(), child.getMovedTo());
-        moveTo = child.getMovedTo();
-        break;
-      }
+    if (getMiniMax().isSearchCancelled()) {
+      return;
+    }
+    Cell moveTo = getMiniMax().getBestMoveTo();
+    if (moveTo != null) {
+      move(getMiniMax().getBestMoveFrom(), moveTo);
     }
     if (this.getState().getCurrentPlayer() == Player.BLACK) {
-      this.handleWinningCase(moveTo);
+      this.handleWinningCase(moveTo.getRow());
     }
+    getMiniMax().startPondering(this);
   }
 
   @Override
@@ -127,6 +131,26 @@ public class Chess implements Model {
     return this.miniMax;
   }
 
+  @Override
+  public void setSearchMode(SearchMode mode) {
+    this.miniMax.setSearchMode(mode);
+  }
+
+  @Override
+  public SearchMode getSearchMode() {
+    return this.miniMax.getSearchMode();
+  }
+
+  @Override
+  public void setPondering(boolean pondering) {
+    this.miniMax.setPondering(pondering);
+  }
+
+  @Override
+  public boolean isPondering() {
+    return this.miniMax.isPondering();
+  }
+
   @Override
   public void setGameMode(GameMode mode) {
     this.gameMode = mode;
@@ -194,7 +218,7 @@ public class Chess implements Model {
     boolean toWithinBounds = state.getField().isWithinBounds(to);
     if (currentPhase == Phase.RUNNING && fromValid && toWithinBounds) {
       if (getPossibleMovesForPawn(from).contains(to)) {
-        executeMove(from, to);
+        executeMove(from.getSquare(), to.getSquare());
         if (this.getGameMode() == GameMode.NETWORK) {
           this.state.increaseAge();
         }
@@ -205,6 +229,163 @@ public class Chess implements Model {
     return false;
   }
 
+  /**
+   * Execute a move on this game without validating it and without notifying any listeners. This
+   * is the step function of the search algorithms: the move has to be one of the moves returned by
+   * {@link #generateMoves(int[])}, and it can be taken back with {@link #unmakeMove()}. Apart from
+   * growing the internal undo stack once in a while, the method allocates no objects.
+   *
+   * @param move the move to execute, encoded as described in {@link Move}
+   */
+  void makeMove(int move) {
+    if (undoCount == undoStack.length) {
+      undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+    }
+    int to = Move.to(move);
+    int entry = playerCode(state.getField().getBitBoard().getPlayer(to));
+    entry = (entry << 2) | playerCode(state.getWinnerOrNull());
+    entry = (entry << 2) | state.getCurrentPhase().ordinal();
+    entry = (entry << 1) | state.getCurrentPlayer().ordinal();
+    undoStack[undoCount++] = (entry << MOVE_BITS) | move;
+    executeMove(Move.from(move), to);
+  }
+
+  /**
+   * Take back the last move that was executed with {@link #makeMove(int)}. The field, the current
+   * player, the phase and the winner are restored exactly to the values they had before that move.
+   */
+  void unmakeMove() {
+    assert undoCount > 0 : "There is no move to take back";
+    int entry = undoStack[--undoCount];
+    int move = entry & ((1 << MOVE_BITS) - 1);
+    entry >>>= MOVE_BITS;
+    Player player = PLAYER_CODES[(entry & 1) + 1];
+    Phase phase = PHASES[(entry >>> 1) & 3];
+    Player winner = PLAYER_CODES[(entry >>> 3) & 3];
+    Player capturedPlayer = PLAYER_CODES[(entry >>> 5) & 3];
+    BitBoard board = state.getField().getBitBoard();
+    int to = Move.to(move);
+    assert board.getPlayer(to) == player : "Move " + Move.toString(move) + " was not made last";
+    board.clear(to);
+    board.set(Move.from(move), player);
+    if (capturedPlayer != null) {
+      board.set(to, capturedPlayer);
+    }
+    state.setCurrentPlayer(player);
+    state.setCurrentPhase(phase);
+    state.setWinner(winner);
+  }
+
+  /**
+   * Encode a player, or the absence of a player, as a number for the undo stack.
+   *
+   * @param player the player to encode, may be null
+   * @return 0 for null, 1 for the white player, 2 for the black player
+   */
+  private static int playerCode(Player player) {
+    return player == null ? 0 : player.ordinal() + 1;
+  }
+
+  /**
+   * Return the Zobrist key of the current position. It combines the key of the pawn positions with
+   * the player to move and is updated incrementally by every move.
+   *
+   * @return a 64 bit hash of the position
+   */
+  long getPositionKey() {
+    long key = state.getField().getBitBoard().getKey();
+    return state.getCurrentPlayer() == Player.BLACK ? key ^ BLACK_TO_MOVE_KEY : key;
+  }
+
+  /**
+   * Generate all moves of the current player in one pass over the pawns of the player. The targets
+   * of every pawn are taken from the {@link PawnMoveTables}. The moves are sorted by their target
+   * cell in the same order in which the minimax tree lists the children of a node, so that all
+   * engines prefer the same move if several moves are rated equally.
+   *
+   * @param moves the buffer the moves are written to, it has to hold at least 32 moves
+   * @return the number of moves that were written to the buffer
+   */
+  int generateMoves(int[] moves) {
+    BitBoard board = state.getField().getBitBoard();
+    Player player = state.getCurrentPlayer();
+    long opponentPawns = board.getPawns(otherPlayer(player));
+    long occupied = board.getOccupied();
+    int count = 0;
+    long pawns = board.getPawns(player);
+    while (pawns != 0) {
+      int from = Long.numberOfTrailingZeros(pawns);
+      pawns &= pawns - 1;
+      count = generatePawnMoves(from, player, opponentPawns, occupied, moves, count);
+    }
+    sortByTarget(moves, count, player == Player.WHITE);
+    return count;
+  }
+
+  /**
+   * Append the moves of a single pawn to a buffer of moves. A pawn can step straight ahead onto an
+   * empty cell, and from its starting line also two steps if both cells are empty, and it can
+   * capture a pawn of the opponent diagonally ahead.
+   *
+   * @param from the square of the pawn
+   * @param player the player the pawn belongs to
+   * @param opponentPawns the mask of the pawns of the opponent
+   * @param occupied the mask of all occupied squares
+   * @param moves the buffer the moves are written to
+   * @param count the number of moves that are already in the buffer
+   * @return the number of moves in the buffer after the moves of the pawn were added
+   */
+  private static int generatePawnMoves(
+      int from, Player player, long opponentPawns, long occupied, int[] moves, int count) {
+    int left = PawnMoveTables.leftCaptures(player)[from];
+    if (left != PawnMoveTables.NO_SQUARE && (opponentPawns >>> left & 1L) != 0) {
+      moves[count++] = Move.of(from, left);
+    }
+    int push = PawnMoveTables.singlePushes(player)[from];
+    if (push != PawnMoveTables.NO_SQUARE && (occupied >>> push & 1L) == 0) {
+      moves[count++] = Move.of(from, push);
+      int doublePush = PawnMoveTables.doublePushes(player)[from];
+      if (doublePush != PawnMoveTables.NO_SQUARE && (occupied >>> doublePush & 1L) == 0) {
+        moves[count++] = Move.of(from, doublePush);
+      }
+    }
+    int right = PawnMoveTables.rightCaptures(player)[from];
+    if (right != PawnMoveTables.NO_SQUARE && (opponentPawns >>> right & 1L) != 0) {
+      moves[count++] = Move.of(from, right);
+    }
+    return count;
+  }
+
+  /**
+   * Sort moves by their target cell, comparing columns first and rows second just like {@link
+   * Cell#compareTo(Cell)}. Moves to the same target are sorted by their starting square.
+   *
+   * @param moves the moves to sort
+   * @param count the number of moves in the buffer
+   * @param ascending true to sort in ascending order, false for descending order
+   */
+  private static void sortByTarget(int[] moves, int count, boolean ascending) {
+    for (int i = 1; i < count; i++) {
+      int move = moves[i];
+      int key = targetOrder(move, ascending);
+      int j = i - 1;
+      while (j >= 0 && targetOrder(moves[j], ascending) > key) {
+        moves[j + 1] = moves[j];
+        j--;
+      }
+      moves[j + 1] = move;
+    }
+  }
+
+  private static int targetOrder(int move, boolean ascending) {
+    int to = Move.to(move);
+    int targetKey = BitBoard.column(to) * GameField.SIZE + BitBoard.row(to);
+    if (!ascending) {
+      targetKey = GameField.SIZE * GameField.SIZE - 1 - targetKey;
+    }
+    return (targetKey << 6) | Move.from(move);
+  }
+
   /**
    * The winner of the game, depending on the circumstances of how the game ended, is determined. In
    * the case of a pawn reaching the opponent's starting line the player of that move is declared a
@@ -212,11 +393,10 @@ public class Chess implements Model {
    * counting the remaining pawns on the field in order to find the player with the maximum amount
    * of pawns.
    *
-   * @param movedTo the cell that the pawn was set to in the last successful move
+   * @param movedToRow the row that the pawn was set to in the last successful move
    */
-  private void handleWinningCase(Cell movedTo) {
+  private void handleWinningCase(int movedToRow) {
     state.setCurrentPhase(Phase.FINISHED);
-    int movedToRow = movedTo.getRow();
     boolean reachedFinishLine = movedToRow == FIRST_ROW || movedToRow == LAST_ROW;
     if (reachedFinishLine) {
       state.setWinner(state.getCurrentPlayer());
@@ -229,14 +409,15 @@ public class Chess implements Model {
    * Set pawn on the new field, remove the pawn from the starting field and handle both winning
    * scenario and scenario of the continued game, depending on which case occurs.
    *
-   * @param fromC the cell that is the starting point of the move
-   * @param toC the cell that is the end point of the move
+   * @param from the square that is the starting point of the move
+   * @param to the square that is the end point of the move
    */
-  private void executeMove(Cell fromC, Cell toC) {
-    state.getField().set(toC, new Pawn(state.getCurrentPlayer()));
-    state.getField().remove(fromC);
-    if (isGameOver(toC)) {
-      handleWinningCase(toC);
+  private void executeMove(int from, int to) {
+    BitBoard board = state.getField().getBitBoard();
+    board.set(to, state.getCurrentPlayer());
+    board.clear(from);
+    if (isGameOver(BitBoard.row(to))) {
+      handleWinningCase(BitBoard.row(to));
     } else {
       state.setCurrentPlayer(handleNextTurn());
     }
@@ -252,8 +433,6 @@ public class Chess implements Model {
   private Player handleNextTurn() {
     if (!canMove(otherPlayer(state.getCurrentPlayer()))) {
       return state.getCurrentPlayer();
-    } else if (this.getGameMode() == GameMode.SINGLE && !canMove(Player.WHITE)) {
-      return otherPlayer(state.getCurrentPlayer());
     } else {
       return otherPlayer(state.getCurrentPlayer());
     }
@@ -264,21 +443,8 @@ public class Chess implements Model {
    * left and set this player as the winner of the game.
    */
   private void countPawns() {
-    int countBlack = 0;
-    int countWhite = 0;
-    for (int row = LAST_ROW; row >= FIRST_ROW; row--) {
-      for (int col = FIRST_COLUMN; col < GameField.SIZE; col++) {
-        chess.model.Cell currentCell = new chess.model.Cell(col, row);
-        Optional<Pawn> cellInput = state.getField().get(currentCell);
-        if (cellInput.isPresent() && cellInput.get().getPlayer().toString().equals("White")) {
-          countWhite++;
-        } else if (cellInput.isPresent()
-            && cellInput.get().getPlayer().toString().equals("Black")) {
-          countBlack++;
-        }
-      }
-    }
-    setWinnerByPawnCount(countWhite, countBlack);
+    BitBoard board = state.getField().getBitBoard();
+    setWinnerByPawnCount(board.countPawns(Player.WHITE), board.countPawns(Player.BLACK));
   }
 
   /**
@@ -301,55 +467,25 @@ public class Chess implements Model {
   /**
    * Determine whether the game has been finished through the previous successful move.
    *
-   * @param movedTo the cell that the pawn was set to in the last successful move
+   * @param movedToRow the row that the pawn was set to in the last successful move
    * @return true if one of the two conditions of a finished game are met, false otherwise.
    */
-  private boolean isGameOver(Cell movedTo) {
-    int movedToRow = movedTo.getRow();
+  private boolean isGameOver(int movedToRow) {
     boolean reachedFinishLine = movedToRow == FIRST_ROW || movedToRow == LAST_ROW;
-    boolean canWhiteMove = canMove(Player.WHITE);
-    boolean canBlackMove = canMove(Player.BLACK);
-
-    return (reachedFinishLine || (!canWhiteMove && !canBlackMove));
+    return reachedFinishLine || (!canMove(Player.WHITE) && !canMove(Player.BLACK));
   }
 
   /**
    * Check if the selected player has at least one option to do a move or if he has to miss a turn.
+   * The check only combines the bit masks of the board, so it takes the same short time no matter
+   * how many pawns are left.
    *
    * @param player the selected player whose options are examined
    * @return boolean: <code>true</code> if there actually is at least one possible move, <code>false
    *     </code> otherwise.
    */
   private boolean canMove(Player player) {
-    for (int row = LAST_ROW; row >= FIRST_ROW; row--) {
-      for (int col = FIRST_COLUMN; col < GameField.SIZE; col++) {
-        chess.model.Cell currentCell = new chess.model.Cell(col, row);
-        Optional<Pawn> cellInput = state.getField().get(currentCell);
-        if (cellInput.isPresent()
-            && cellInput.get().getPlayer() == player
-            && !getPossibleMovesForPawn(currentCell).isEmpty()) {
-          return true;
-        }
-      }
-    }
-    return false;
-  }
-
-  /**
-   * This function helps to determine the direction of a move. This is necessary because the pawns
-   * of the white player move UP (by +1 or +2 steps) but the pawns of the black player move DOWN (by
-   * -1 or -2 steps). This method returns an int that is used to specify the direction of the move -
-   * positive for up, negative for down.
-   *
-   * @param player a String that represent the color of the current player.
-   * @return an int: 1 it the player is white, -1 it the player is black.
-   */
-  int determineMoveDirection(Player player) {
-    if (player == Player.WHITE) {
-      return 1;
-    } else {
-      return -1;
-    }
+    return state.getField().getBitBoard().getMobilePawns(player) != 0;
   }
 
   /**
@@ -379,8 +515,8 @@ public class Chess implements Model {
    */
   private boolean checkFromCell(Cell inspectedField, Player curPlay) {
     boolean withinBounds = state.getField().isWithinBounds(inspectedField);
-    if (withinBounds && state.getField().get(inspectedField).isPresent()) {
-      return state.getField().get(inspectedField).get().getPlayer() == curPlay;
+    if (withinBounds) {
+      return state.getField().getPlayer(inspectedField.getSquare()) == curPlay;
     } else {
       return false;
     }
@@ -388,54 +524,36 @@ public class Chess implements Model {
 
   /** Fill the field with pawns using the initial lineup. */
   private void initializeField() {
-    Pawn whitePawn = new Pawn(Player.WHITE);
-    Pawn blackPawn = new Pawn(Player.BLACK);
+    BitBoard board = state.getField().getBitBoard();
     for (int c = FIRST_COLUMN; c < GameField.SIZE; c++) {
-      Cell cell = new Cell(c, 0);
-      state.getField().set(cell, whitePawn);
-    }
-    for (int c = FIRST_COLUMN; c < GameField.SIZE; c++) {
-      Cell cell = new Cell(c, 7);
-      state.getField().set(cell, blackPawn);
+      board.set(BitBoard.square(c, FIRST_ROW), Player.WHITE);
+      board.set(BitBoard.square(c, LAST_ROW), Player.BLACK);
     }
   }
 
   @Override
   public Set<Cell> getPossibleMovesForPawn(Cell cell) {
     Set<Cell> possibleMoves = new HashSet<>();
-    Optional<Pawn> pawnOnCell = state.getField().get(cell);
-    int moveDirection = determineMoveDirection(pawnOnCell.get().getPlayer());
-    Cell possibleCellForMoveDiagonallyLeft =
-        new Cell(cell.getColumn() - 1, cell.getRow() + moveDirection);
-    if (state.getField().isWithinBounds(possibleCellForMoveDiagonallyLeft)
-        && state.getField().get(possibleCellForMoveDiagonallyLeft).isPresent()) {
-      if (state.getField().get(possibleCellForMoveDiagonallyLeft).get().getPlayer()
-          == otherPlayer(pawnOnCell.get().getPlayer())) {
-        possibleMoves.add(possibleCellForMoveDiagonallyLeft);
-      }
+    BitBoard board = state.getField().getBitBoard();
+    if (!state.getField().isWithinBounds(cell)) {
+      return possibleMoves;
     }
-    Cell possibleCellForMoveStraight = new Cell(cell.getColumn(), cell.getRow() + moveDirection);
-    if (state.getField().isWithinBounds(possibleCellForMoveStraight)
-        && state.getField().get(possibleCellForMoveStraight).equals(Optional.empty())) {
-      possibleMoves.add(possibleCellForMoveStraight);
+    int square = cell.getSquare();
+    Player player = board.getPlayer(square);
+    if (player == null) {
+      return possibleMoves;
     }
-    Cell possibleCellForMoveTwoStepsAhead =
-        new Cell(cell.getColumn(), cell.getRow() + (TWO_FIELDS * moveDirection));
-    if (state.getField().isWithinBounds(possibleCellForMoveStraight)
-        && state.getField().isWithinBounds(possibleCellForMoveTwoStepsAhead)
-        && (cell.getRow() == FIRST_ROW || cell.getRow() == LAST_ROW)
-        && state.getField().get(possibleCellForMoveStraight).equals(Optional.empty())
-        && state.getField().get(possibleCellForMoveTwoStepsAhead).equals(Optional.empty())) {
-      possibleMoves.add(possibleCellForMoveTwoStepsAhead);
-    }
-    Cell possibleCellForMoveDiagonallyRight =
-        new Cell(cell.getColumn() + 1, cell.getRow() + moveDirection);
-    if (state.getField().isWithinBounds(possibleCellForMoveDiagonallyRight)
-        && state.getField().get(possibleCellForMoveDiagonallyRight).isPresent()) {
-      if (state.getField().get(possibleCellForMoveDiagonallyRight).get().getPlayer()
-          == otherPlayer(pawnOnCell.get().getPlayer())) {
-        possibleMoves.add(possibleCellForMoveDiagonallyRight);
-      }
+    int[] moves = new int[MAX_MOVES_PER_PAWN];
+    int count =
+        generatePawnMoves(
+            square,
+            player,
+            board.getPawns(otherPlayer(player)),
+            board.getOccupied(),
+            moves,
+            0);
+    for (int i = 0; i < count; i++) {
+      possibleMoves.add(Move.toCell(moves[i]));
     }
     return possibleMoves;
   }
@@ -0,0 +1,670 @@
+package chess.model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * The class DepthFirstSearch implements the minimax algorithm with alpha-beta pruning without ever
+ * building a tree. It works on a single copy of the game that is changed with {@link
+ * Chess#makeMove(int)} while walking down the tree and restored with {@link Chess#unmakeMove()} on
+ * the way back up. The leaves are rated by an {@link IncrementalEvaluation} that follows these
+ * changes. Besides the copy, the search only keeps a move buffer and the principal variation (the
+ * line of best moves) for every level, so its memory use does not grow with the number of
+ * positions it looks at.
+ *
+ * <p>If a {@link TranspositionTable} is given, every position is looked up before it is expanded,
+ * and the result of its search is stored afterwards. The moves of a position are searched in the
+ * order given by {@link MoveOrdering}, which starts with the move the table remembers.
+ *
+ * <p>When the depth is used up, the search does not rate the position right away if a capture or a
+ * move to the finish line is possible, because the rating would ignore that the position is about
+ * to change a lot. Instead, a quiescence search follows only these moves until the position is
+ * quiet. The player to move may always decline them and keep the rating of the position as it is
+ * ("stand pat").
+ *
+ * <p>The search deepens iteratively: it first searches one move ahead, then two moves, and so on.
+ * If a time budget is given, the iteration that is running when the time is up is abandoned and the
+ * result of the deepest completed iteration is used. The shallower iterations are cheap compared to
+ * the last one and fill the transposition table for it.
+ *
+ * <p>As a principal variation search, only the first move of a position is searched with the full
+ * window. With good move ordering, it is usually the best move, so each following move is only
+ * tested with a null window whether it is better. Only if it is, the move is searched again with
+ * the full window. Each iteration of the deepening then starts with an aspiration window around
+ * the value of the previous iteration, which is widened step by step if the value falls outside.
+ *
+ * <p>The search can also be made selective. With late move reductions, the quiet moves that are
+ * ranked low by the move ordering are first searched less deep, and only searched to the full
+ * depth if they turn out to be better than expected. With futility pruning, the quiet moves of a
+ * position right before the leaves are skipped if the rating of the position is so far below the
+ * guaranteed value that a single quiet move cannot make up for it.
+ *
+ * <p>Several searches may share one transposition table and run in parallel threads. A search can
+ * be stopped from another thread with {@link #stop()}, which abandons its current iteration just
+ * like an exceeded time budget. Searches that belong together, like the searches of one move of the
+ * AI, can also share a cancellation flag, which stops all of them at once.
+ *
+ * <p>While it runs, the search can report its progress to a listener: the depth of the deepest
+ * completed iteration, the number of visited positions and the best move so far. The progress is
+ * reported from the thread of the search, at most once in a given interval.
+ */
+class DepthFirstSearch {
+
+  static final int MAX_PLY = 64;
+  static final int MAX_MOVES = 32;
+  private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+  private static final long NANOS_PER_MILLI = 1_000_000L;
+  private static final double INITIAL_ASPIRATION_WINDOW = 2;
+  private static final double MAXIMUM_ASPIRATION_WINDOW = 64;
+  private static final int FIRST_REDUCED_MOVE = 3;
+  private static final int FIRST_DOUBLY_REDUCED_MOVE = 8;
+  private static final int MINIMUM_REDUCTION_DEPTH = 3;
+  private static final double FUTILITY_MARGIN = 4;
+
+  private final IncrementalEvaluation evaluation;
+  private final TranspositionTable table;
+  private final TranspositionTable.Entry tableEntry = new TranspositionTable.Entry();
+  private final SearchStatistics statistics = new SearchStatistics();
+  private final int[][] moves = new int[MAX_PLY][MAX_MOVES];
+  private final int[][] moveScores = new int[MAX_PLY][MAX_MOVES];
+  private final MoveOrdering moveOrdering;
+  private final int[][] principalVariation = new int[MAX_PLY + 1][MAX_PLY + 1];
+  private final int[] principalVariationLength = new int[MAX_PLY + 1];
+  private Chess position;
+  private Node evaluationNode;
+  private long deadline;
+  private boolean timeLimited;
+  private long nodeBudget;
+  private long nodeLimit;
+  private boolean nodeLimited;
+  private boolean aborted;
+  private volatile boolean stopped;
+  private AtomicBoolean cancellation = new AtomicBoolean();
+  private Consumer<SearchProgress> progressListener;
+  private long progressIntervalNanos;
+  private long searchStart;
+  private long lastProgress;
+  private boolean principalVariationSearch;
+  private boolean lateMoveReductions;
+  private boolean futilityPruning;
+  private int[] completedLine = new int[0];
+  private int completedDepth;
+
+  /**
+   * Construct a search that rates the leaves of the tree with the given evaluation.
+   *
+   * @param evaluation the evaluation functions used for the leaves.
+   * @param table the transposition table to use, or null to search without one.
+   */
+  DepthFirstSearch(StrategyEvaluation evaluation, TranspositionTable table) {
+    this(evaluation, table, new MoveOrdering(MAX_PLY));
+  }
+
+  /**
+   * Construct a search that orders its moves with the given move ordering, so that the killer moves
+   * and history scores of an earlier search are used from the start.
+   *
+   * @param evaluation the evaluation functions used for the leaves.
+   * @param table the transposition table to use, or null to search without one.
+   * @param moveOrdering the move ordering to use, for at least {@link #MAX_PLY} levels.
+   */
+  DepthFirstSearch(
+      StrategyEvaluation evaluation, TranspositionTable table, MoveOrdering moveOrdering) {
+    this.evaluation = new IncrementalEvaluation(evaluation);
+    this.table = table;
+    this.moveOrdering = moveOrdering;
+  }
+
+  /**
+   * Select whether the moves after the first move of a position are searched with a null window
+   * and the iterations of the deepening with an aspiration window.
+   *
+   * @param principalVariationSearch true for a principal variation search, false for a plain
+   *     alpha-beta search.
+   */
+  void setPrincipalVariationSearch(boolean principalVariationSearch) {
+    this.principalVariationSearch = principalVariationSearch;
+  }
+
+  /**
+   * Select whether quiet moves that are ranked low by the move ordering are searched less deep
+   * first.
+   *
+   * @param lateMoveReductions true to reduce late moves, false to search all moves to full depth.
+   */
+  void setLateMoveReductions(boolean lateMoveReductions) {
+    this.lateMoveReductions = lateMoveReductions;
+  }
+
+  /**
+   * Select whether quiet moves right before the leaves are skipped if they cannot raise the value
+   * of the position above the guaranteed value.
+   *
+   * @param futilityPruning true to prune futile moves, false to search all moves.
+   */
+  void setFutilityPruning(boolean futilityPruning) {
+    this.futilityPruning = futilityPruning;
+  }
+
+  /**
+   * Let the search also stop as soon as the given flag is set. All searches that share the flag
+   * are stopped together, like with {@link #stop()}.
+   *
+   * @param cancellation the flag that cancels the search when it is set.
+   */
+  void setCancellation(AtomicBoolean cancellation) {
+    this.cancellation = cancellation;
+  }
+
+  /**
+   * Limit the following searches to about the given number of visited positions. Like the time
+   * budget, the limit only applies after the first iteration, and the deepest completed iteration
+   * is kept. Unlike the time budget, the limit makes the search independent of the speed and load
+   * of the machine, so a search with a node budget always finds the same move.
+   *
+   * @param nodeBudget the number of positions a search may visit, or 0 for no limit.
+   */
+  void setNodeBudget(long nodeBudget) {
+    this.nodeBudget = nodeBudget;
+  }
+
+  /**
+   * Report the progress of the following searches to the given listener. The listener is called
+   * from the thread of the search whenever an iteration is completed or the search is checking its
+   * time budget, but at most once in the given interval.
+   *
+   * @param progressListener the listener, or null to report no progress.
+   * @param progressIntervalMillis the shortest time between two reports in milliseconds.
+   */
+  void setProgressListener(
+      Consumer<SearchProgress> progressListener, long progressIntervalMillis) {
+    this.progressListener = progressListener;
+    this.progressIntervalNanos = progressIntervalMillis * NANOS_PER_MILLI;
+  }
+
+  /**
+   * Search the given game to the given depth.
+   *
+   * @param chess the game that serves as starting point, it is not changed by the search.
+   * @param depth the number of moves to look ahead, at most {@link #MAX_PLY}.
+   * @return the value of the game for the current player.
+   */
+  double search(Chess chess, int depth) {
+    return search(chess, depth, 0);
+  }
+
+  /**
+   * Search the given game with iterative deepening until either the given depth is reached or the
+   * time budget is used up. The first iteration is always completed, so that there is a move to
+   * play even if the budget is very small.
+   *
+   * @param chess the game that serves as starting point, it is not changed by the search.
+   * @param maxDepth the number of moves to look ahead at most, at most {@link #MAX_PLY}.
+   * @param timeBudgetMillis the time the search may take in milliseconds, or 0 for no limit.
+   * @return the value of the game for the current player, as found by the deepest completed
+   *     iteration.
+   */
+  double search(Chess chess, int maxDepth, long timeBudgetMillis) {
+    return search(chess, maxDepth, timeBudgetMillis, 1);
+  }
+
+  /**
+   * Search the given game with iterative deepening, starting with an iteration of the given depth.
+   * Starting deeper than one move is used by helper threads of a parallel search, so that they do
+   * not all search the same depth at the same time.
+   *
+   * @param chess the game that serves as starting point, it is not changed by the search.
+   * @param maxDepth the number of moves to look ahead at most, at most {@link #MAX_PLY}.
+   * @param timeBudgetMillis the time the search may take in milliseconds, or 0 for no limit.
+   * @param firstDepth the depth of the first iteration.
+   * @return the value of the game for the current player, as found by the deepest completed
+   *     iteration.
+   */
+  double search(Chess chess, int maxDepth, long timeBudgetMillis, int firstDepth) {
+    long start = System.nanoTime();
+    searchStart = start;
+    lastProgress = start;
+    position = new Chess(chess);
+    evaluationNode = new Node(position, null, null, true);
+    evaluation.attach(position.getState().getField().getBitBoard());
+    deadline = start + timeBudgetMillis * NANOS_PER_MILLI;
+    timeLimited = false;
+    nodeLimit = statistics.getNodes() + nodeBudget;
+    nodeLimited = false;
+    aborted = false;
+    completedLine = new int[0];
+    completedDepth = 0;
+    double value = 0;
+    for (int depth = firstDepth; depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+      double iterationValue =
+          principalVariationSearch && depth > firstDepth
+              ? searchAspirationWindow(depth, value)
+              : negamax(0, depth, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+      if (aborted) {
+        break;
+      }
+      value = iterationValue;
+      completedDepth = depth;
+      completedLine = new int[principalVariationLength[0]];
+      System.arraycopy(principalVariation[0], 0, completedLine, 0, completedLine.length);
+      timeLimited = timeBudgetMillis > 0;
+      nodeLimited = nodeBudget > 0;
+      reportProgress(System.nanoTime());
+    }
+    statistics.setDepth(completedDepth);
+    statistics.addElapsedNanos(System.nanoTime() - start);
+    return value;
+  }
+
+  /**
+   * Search the starting position with a window around the value of the previous iteration. If the
+   * value falls outside the window, the window is widened on that side and the position is searched
+   * again, until the value lies within the window or the window becomes unlimited.
+   *
+   * @param depth the number of moves to look ahead.
+   * @param previousValue the value of the previous iteration.
+   * @return the value of the starting position for the current player.
+   */
+  private double searchAspirationWindow(int depth, double previousValue) {
+    double window = INITIAL_ASPIRATION_WINDOW;
+    double alpha = previousValue - window;
+    double beta = previousValue + window;
+    while (true) {
+      double value = negamax(0, depth, alpha, beta);
+      if (aborted
+          || (value > alpha || alpha == Double.NEGATIVE_INFINITY)
+              && (value < beta || beta == Double.POSITIVE_INFINITY)) {
+        return value;
+      }
+      window *= 2;
+      if (value <= alpha) {
+        alpha = window > MAXIMUM_ASPIRATION_WINDOW ? Double.NEGATIVE_INFINITY : value - window;
+      } else {
+        beta = window > MAXIMUM_ASPIRATION_WINDOW ? Double.POSITIVE_INFINITY : value + window;
+      }
+      statistics.countResearch();
+    }
+  }
+
+  /**
+   * Search a game that arose from the starting position of the AI by one move, to exactly the
+   * given depth and only within the given window. This is used by the root split search, which
+   * searches the moves of the starting position in parallel and hands the window of the starting
+   * position to the searches of the children. Unlike the other searches, the game may already be
+   * over, because the first move may have decided it.
+   *
+   * @param chess the game after the first move, it is not changed by the search.
+   * @param depth the number of moves to look ahead.
+   * @param alpha the value the player to move in the game is already guaranteed.
+   * @param beta the value the opponent is already guaranteed.
+   * @return the value of the game for its current player, or 0 if the search was aborted.
+   */
+  double searchWindow(Chess chess, int depth, double alpha, double beta) {
+    position = new Chess(chess);
+    GameState state = chess.getState();
+    position.getState().setCurrentPhase(state.getCurrentPhase());
+    if (state.getWinnerOrNull() != null) {
+      position.getState().setWinner(state.getWinnerOrNull());
+    }
+    evaluationNode = new Node(position, null, null, true);
+    evaluation.attach(position.getState().getField().getBitBoard());
+    aborted = false;
+    return negamax(1, Math.min(depth, MAX_PLY - 1), alpha, beta);
+  }
+
+  /**
+   * Abort the following calls of {@link #searchWindow(Chess, int, double, double)} as soon as the
+   * given point in time is reached.
+   *
+   * @param deadline the value of {@link System#nanoTime()} at which the search is aborted.
+   */
+  void setDeadline(long deadline) {
+    this.deadline = deadline;
+    this.timeLimited = true;
+  }
+
+  /**
+   * Getter: returns whether the last search was aborted because it ran out of time or was stopped.
+   *
+   * @return true if the result of the last search is incomplete, false otherwise.
+   */
+  boolean isAborted() {
+    return aborted;
+  }
+
+  /**
+   * Stop the search as soon as possible. The iteration that is running is abandoned, and the
+   * result of the deepest completed iteration is kept. A stopped search cannot be restarted.
+   */
+  void stop() {
+    stopped = true;
+  }
+
+  /**
+   * Getter: returns the best move found by the deepest completed iteration of the last search.
+   *
+   * @return the best move, or {@link Move#NONE} if the current player could not move.
+   */
+  int getBestMove() {
+    return completedLine.length > 0 ? completedLine[0] : Move.NONE;
+  }
+
+  /**
+   * Getter: returns the principal variation of the deepest completed iteration of the last search,
+   * that is the sequence of moves both players make if they always choose the best move.
+   *
+   * @return the moves of the principal variation, starting with the best move.
+   */
+  int[] getPrincipalVariation() {
+    return completedLine.clone();
+  }
+
+  /**
+   * Getter: returns the depth of the deepest completed iteration of the last search.
+   *
+   * @return the number of moves the search looked ahead.
+   */
+  int getCompletedDepth() {
+    return completedDepth;
+  }
+
+  /**
+   * Getter: returns the statistics of all searches made by this object.
+   *
+   * @return the collected statistics.
+   */
+  SearchStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Computes the negamax value of the current position. The value is seen from the perspective of
+   * the player who is about to move, so each level can maximize.
+   *
+   * @param ply the number of moves made since the start of the search.
+   * @param depth the number of moves that are still to be looked ahead.
+   * @param alpha the value the player to move is already guaranteed.
+   * @param beta the value the opponent is already guaranteed.
+   * @return the value of the position for the player to move.
+   */
+  private double negamax(int ply, int depth, double alpha, double beta) {
+    if (depth == 0) {
+      return quiescence(ply, alpha, beta);
+    }
+    if (countNodeAndCheckTime()) {
+      return 0;
+    }
+    principalVariationLength[ply] = 0;
+    Player player = position.getState().getCurrentPlayer();
+    if (position.getState().getCurrentPhase() != Phase.RUNNING) {
+      return rateForPlayerToMove(evaluation, evaluationNode, ply);
+    }
+    long key = position.getPositionKey();
+    int tableMove = Move.NONE;
+    if (table != null) {
+      boolean hit = table.probe(key, tableEntry);
+      statistics.countTableProbe(hit);
+      if (hit) {
+        tableMove = tableEntry.move;
+      }
+      if (hit && !tableEntry.fromEarlierSearch && ply > 0 && tableEntry.depth >= depth) {
+        double score = tableEntry.score;
+        if (tableEntry.bound == TranspositionTable.EXACT
+            || (tableEntry.bound == TranspositionTable.LOWER_BOUND && score >= beta)
+            || (tableEntry.bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+          return score;
+        }
+      }
+    }
+    double originalAlpha = alpha;
+    int bestMove = Move.NONE;
+    int[] movesOfPly = moves[ply];
+    int[] scoresOfPly = moveScores[ply];
+    int count = position.generateMoves(movesOfPly);
+    moveOrdering.score(position, movesOfPly, scoresOfPly, count, ply, tableMove);
+    double bestValue = Double.NEGATIVE_INFINITY;
+    double futilityValue = Double.POSITIVE_INFINITY;
+    if (futilityPruning && depth == 1 && ply > 0) {
+      futilityValue = rateForPlayerToMove(evaluation, evaluationNode, ply) + FUTILITY_MARGIN;
+    }
+    for (int i = 0; i < count; i++) {
+      int move = moveOrdering.next(movesOfPly, scoresOfPly, i, count);
+      boolean quiet = MoveOrdering.isHistoryMove(scoresOfPly[i]);
+      if (quiet && i > 0 && futilityValue <= alpha) {
+        statistics.countPrunedMoves(count - i);
+        bestValue = Math.max(bestValue, futilityValue);
+        break;
+      }
+      position.makeMove(move);
+      boolean samePlayer = position.getState().getCurrentPlayer() == player;
+      int reduction = quiet && ply > 0 ? reductionOf(i, depth) : 0;
+      double value = Double.POSITIVE_INFINITY;
+      if (reduction > 0) {
+        statistics.countReduction();
+        value = searchChild(ply, depth - reduction, alpha, Math.nextUp(alpha), samePlayer);
+      }
+      if (value > alpha && !aborted) {
+        if (reduction > 0) {
+          statistics.countResearch();
+        }
+        if (principalVariationSearch && i > 0) {
+          value = searchChild(ply, depth, alpha, Math.nextUp(alpha), samePlayer);
+          if (value > alpha && value < beta && !aborted) {
+            statistics.countResearch();
+            value = searchChild(ply, depth, alpha, beta, samePlayer);
+          }
+        } else {
+          value = searchChild(ply, depth, alpha, beta, samePlayer);
+        }
+      }
+      position.unmakeMove();
+      if (aborted) {
+        return 0;
+      }
+      if (value > bestValue) {
+        bestValue = value;
+        bestMove = move;
+        if (value > alpha) {
+          alpha = value;
+          updatePrincipalVariation(ply, move);
+        }
+      }
+      if (alpha >= beta) {
+        statistics.countCutoff(i == 0);
+        moveOrdering.recordCutoff(position, move, ply, depth);
+        break;
+      }
+    }
+    if (table != null) {
+      int bound = TranspositionTable.EXACT;
+      if (bestValue <= originalAlpha) {
+        bound = TranspositionTable.UPPER_BOUND;
+      } else if (bestValue >= beta) {
+        bound = TranspositionTable.LOWER_BOUND;
+      }
+      table.store(key, depth, bound, bestValue, bestMove);
+    }
+    return bestValue;
+  }
+
+  /**
+   * Return by how many moves the search of a move is reduced, if late move reductions are enabled.
+   * Only quiet moves are reduced, and only if there are enough moves left to look ahead.
+   *
+   * @param index the rank of the move among the moves of its position, starting with 0.
+   * @param depth the number of moves that were still to be looked ahead before the move.
+   * @return the reduction of the depth, 0 if the move is searched to the full depth.
+   */
+  private int reductionOf(int index, int depth) {
+    if (!lateMoveReductions || depth < MINIMUM_REDUCTION_DEPTH || index < FIRST_REDUCED_MOVE) {
+      return 0;
+    }
+    return index < FIRST_DOUBLY_REDUCED_MOVE || depth == MINIMUM_REDUCTION_DEPTH ? 1 : 2;
+  }
+
+  /**
+   * Search the position after a move with the given window, seen from the player who made the
+   * move.
+   *
+   * @param ply the number of moves made since the start of the search, not counting the move.
+   * @param depth the number of moves that were still to be looked ahead before the move.
+   * @param alpha the value the player who made the move is already guaranteed.
+   * @param beta the value the opponent is already guaranteed.
+   * @param samePlayer true if the player who made the move is also to move next.
+   * @return the value of the position for the player who made the move.
+   */
+  private double searchChild(int ply, int depth, double alpha, double beta, boolean samePlayer) {
+    if (samePlayer) {
+      return negamax(ply + 1, depth - 1, alpha, beta);
+    }
+    return -negamax(ply + 1, depth - 1, -beta, -alpha);
+  }
+
+  /**
+   * Computes the value of the current position like {@link #negamax(int, int, double, double)},
+   * but only follows captures and moves to the finish line. The player to move may also stand pat,
+   * so the rating of the position is a lower bound of its value.
+   *
+   * @param ply the number of moves made since the start of the search.
+   * @param alpha the value the player to move is already guaranteed.
+   * @param beta the value the opponent is already guaranteed.
+   * @return the value of the position for the player to move.
+   */
+  private double quiescence(int ply, double alpha, double beta) {
+    if (countNodeAndCheckTime()) {
+      return 0;
+    }
+    statistics.countQuiescenceNode();
+    principalVariationLength[ply] = 0;
+    Player player = position.getState().getCurrentPlayer();
+    double standPat = rateForPlayerToMove(evaluation, evaluationNode, ply);
+    if (standPat >= beta
+        || ply == MAX_PLY
+        || position.getState().getCurrentPhase() != Phase.RUNNING) {
+      return standPat;
+    }
+    alpha = Math.max(alpha, standPat);
+    double bestValue = standPat;
+    int[] movesOfPly = moves[ply];
+    int[] scoresOfPly = moveScores[ply];
+    int count = position.generateMoves(movesOfPly);
+    moveOrdering.score(position, movesOfPly, scoresOfPly, count, ply, Move.NONE);
+    for (int i = 0; i < count; i++) {
+      int move = moveOrdering.next(movesOfPly, scoresOfPly, i, count);
+      if (!MoveOrdering.isTactical(position, move)) {
+        break;
+      }
+      position.makeMove(move);
+      double value;
+      if (position.getState().getCurrentPlayer() == player) {
+        value = quiescence(ply + 1, alpha, beta);
+      } else {
+        value = -quiescence(ply + 1, -beta, -alpha);
+      }
+      position.unmakeMove();
+      if (aborted) {
+        return 0;
+      }
+      bestValue = Math.max(bestValue, value);
+      alpha = Math.max(alpha, value);
+      if (alpha >= beta) {
+        break;
+      }
+    }
+    return bestValue;
+  }
+
+  /**
+   * Count a visited position and check every few positions whether the search has to be aborted.
+   *
+   * @return true if the search is aborted, false otherwise.
+   */
+  private boolean countNodeAndCheckTime() {
+    statistics.countNode();
+    if (statistics.getNodes() % NODES_BETWEEN_TIME_CHECKS == 0) {
+      long now = System.nanoTime();
+      if (stopped
+          || cancellation.get()
+          || (timeLimited && now - deadline >= 0)
+          || (nodeLimited && statistics.getNodes() >= nodeLimit)) {
+        aborted = true;
+      } else {
+        reportProgress(now);
+      }
+    }
+    return aborted;
+  }
+
+  /**
+   * Report the progress of the search to the listener, unless the last report was less than the
+   * progress interval ago.
+   *
+   * @param now the current value of {@link System#nanoTime()}.
+   */
+  private void reportProgress(long now) {
+    if (progressListener != null && now - lastProgress >= progressIntervalNanos) {
+      lastProgress = now;
+      progressListener.accept(
+          new SearchProgress(
+              completedDepth,
+              statistics.getNodes(),
+              (now - searchStart) / NANOS_PER_MILLI,
+              getBestMove(),
+              false));
+    }
+  }
+
+  /**
+   * Make the given move the first move of the principal variation of a level, followed by the
+   * principal variation of the level below.
+   *
+   * @param ply the level whose principal variation changes.
+   * @param move the new best move of that level.
+   */
+  private void updatePrincipalVariation(int ply, int move) {
+    int[] line = principalVariation[ply];
+    int[] childLine = principalVariation[ply + 1];
+    int childLength = principalVariationLength[ply + 1];
+    line[0] = move;
+    System.arraycopy(childLine, 0, line, 1, childLength);
+    principalVariationLength[ply] = childLength + 1;
+  }
+
+  /**
+   * All evaluation functions rate the game from the perspective of the black player. This method
+   * returns the factor that turns such a rating into the rating for the given player.
+   *
+   * @param player the player whose perspective is needed.
+   * @return 1 for the black player, -1 for the white player.
+   */
+  static int perspectiveOf(Player player) {
+    return player == Player.BLACK ? 1 : -1;
+  }
+
+  /**
+   * Rate a position for the player who is about to move in it. A running game is rated by the
+   * evaluation. A finished game is rated as a win or a loss that outweighs every rating of a
+   * running game, and the earlier it happens, the more it is worth, so that a search takes a win
+   * at once and puts a loss off as long as it can. A drawn game is rated 0. The evaluation itself
+   * is not asked about finished games, because its rating of a win does not follow the perspective
+   * of its other terms: it counts a win of the white player in favour of the black player.
+   *
+   * @param evaluation the evaluation that rates running games.
+   * @param node the node that shows the position.
+   * @param ply the number of moves made since the start of the search.
+   * @return the rating of the position for the player to move.
+   */
+  static double rateForPlayerToMove(StrategyEvaluation evaluation, Node node, int ply) {
+    GameState state = node.getChessStateOfNode().getState();
+    Player player = state.getCurrentPlayer();
+    if (state.getCurrentPhase() != Phase.FINISHED) {
+      return perspectiveOf(player) * evaluation.evaluateState(node, ply);
+    }
+    Player winner = state.getWinnerOrNull();
+    if (winner == null) {
+      return 0;
+    }
+    double winValue = MiniMaxAlgorithm.WINNING_EVALUATION_VALUE - ply;
+    return winner == player ? winValue : -winValue;
+  }
+}
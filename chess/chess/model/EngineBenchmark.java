@@ -0,0 +1,451 @@
+package chess.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * The class EngineBenchmark measures the speed of the AI outside of the graphical user interface.
+ * It lets the engine play a game against itself to collect a set of test positions. First, it
+ * measures how many positions per second each evaluation rates. Then it compares the number of
+ * positions the plain alpha-beta search and the principal variation search visit to reach the same
+ * depths, and how many positions the engines save per move when they reuse the results of the
+ * search of their previous move.
+ *
+ * <p>As a regression gate for the selective search, the benchmark plays the selective engine
+ * against the depth-first engine from a fixed set of random openings, once with each color. Both
+ * engines may visit the same number of positions per move, so the games do not depend on the speed
+ * or load of the machine and every run plays the same games. Since both engines share their
+ * evaluation and most of their search, a fault in the shared code would weaken both alike, so the
+ * selective and the depth-first engine also each play the legacy engine, which searches to its
+ * fixed depth, from the same openings. The gate passes unless the selective engine scores clearly
+ * less than half of the points against the depth-first engine, or either engine against the
+ * legacy engine, that is less than half of the points minus two standard errors of the result;
+ * otherwise the benchmark exits with status 1 after all measurements are done. The Monte Carlo
+ * engine plays an informal match against the selective engine from the first openings with a
+ * fixed time per move, since it cannot be limited by a node budget. Its result depends on the
+ * machine and is only reported, it does not fail the benchmark.
+ *
+ * <p>Finally, the benchmark searches each position with each parallel engine and an increasing
+ * number of threads. For every engine and thread count, the number of visited positions per second
+ * and the speedup compared to a single thread are printed.
+ *
+ * <p>Usage: <code>java chess.model.EngineBenchmark [time per position in ms] [max threads]</code>
+ */
+public final class EngineBenchmark {
+
+  private static final long DEFAULT_TIME_PER_POSITION_MILLIS = 1000;
+  private static final int POSITION_COUNT = 8;
+  private static final int MOVES_BETWEEN_POSITIONS = 2;
+  private static final int MAX_NODE_COUNT_DEPTH = 7;
+  private static final int TABLE_SIZE_IN_MEGABYTES = 16;
+  private static final long SELF_PLAY_TIME_PER_MOVE_MILLIS = 50;
+  private static final long SELF_PLAY_NODES_PER_MOVE = 20_000;
+  private static final int GATE_OPENING_COUNT = 100;
+  private static final int GATE_OPENING_PLIES = 4;
+  private static final long GATE_OPENING_SEED = 20_160_516L;
+  private static final double GATE_TOLERANCE_IN_STANDARD_ERRORS = 2;
+  private static final int MONTE_CARLO_OPENING_COUNT = 25;
+  private static final int REUSE_SEARCH_DEPTH = 8;
+  private static final long MILLIS_PER_SECOND = 1000;
+  private static final long NANOS_PER_MILLI = 1_000_000L;
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private EngineBenchmark() {}
+
+  /**
+   * Run the benchmark.
+   *
+   * @param args optionally the time per position in milliseconds and the maximum number of threads.
+   */
+  public static void main(String[] args) {
+    long timePerPosition =
+        args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_TIME_PER_POSITION_MILLIS;
+    int maxThreads =
+        args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    List<Chess> positions = collectPositions();
+    System.out.printf(
+        "%d positions, %d ms per position, up to %d threads%n",
+        positions.size(), timePerPosition, maxThreads);
+    benchmarkEvaluations(positions, timePerPosition);
+    benchmarkNodeCounts(positions);
+    benchmarkSearchReuse(SearchMode.LEGACY, positions);
+    benchmarkSearchReuse(SearchMode.DEPTH_FIRST, positions);
+    List<Chess> openings = collectOpenings();
+    boolean gatePassed = playSelfPlayGate(openings);
+    playMatch(
+        SearchMode.MONTE_CARLO,
+        SearchMode.SELECTIVE,
+        openings.subList(0, MONTE_CARLO_OPENING_COUNT),
+        0);
+    benchmarkThreads(SearchMode.LAZY_SMP, positions, timePerPosition, maxThreads);
+    benchmarkThreads(SearchMode.ROOT_SPLIT, positions, timePerPosition, maxThreads);
+    if (!gatePassed) {
+      System.out.println("The self-play gate of the selective engine failed.");
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Collect test positions from a game the engine plays against itself with a search of fixed
+   * depth, so that the positions are the same in every run.
+   *
+   * @return the positions of the game, starting with the initial position.
+   */
+  static List<Chess> collectPositions() {
+    List<Chess> positions = new ArrayList<>();
+    Chess chess = new Chess();
+    MiniMaxAlgorithm engine = new MiniMaxAlgorithm();
+    engine.setSearchMode(SearchMode.DEPTH_FIRST);
+    engine.setTimeBudget(0);
+    while (positions.size() < POSITION_COUNT
+        && chess.getState().getCurrentPhase() == Phase.RUNNING) {
+      positions.add(new Chess(chess));
+      for (int i = 0; i < MOVES_BETWEEN_POSITIONS; i++) {
+        if (chess.getState().getCurrentPhase() != Phase.RUNNING) {
+          break;
+        }
+        engine.executeMinimax(chess);
+        chess.move(engine.getBestMoveFrom(), engine.getBestMoveTo());
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * Collect the starting positions of the self-play gate: distinct positions that arise from the
+   * initial position by a few random moves. The random moves are drawn with a fixed seed, so the
+   * openings are the same in every run.
+   *
+   * @return the openings.
+   */
+  static List<Chess> collectOpenings() {
+    List<Chess> openings = new ArrayList<>();
+    Set<Long> keys = new HashSet<>();
+    SplittableRandom random = new SplittableRandom(GATE_OPENING_SEED);
+    int[] moves = new int[DepthFirstSearch.MAX_MOVES];
+    while (openings.size() < GATE_OPENING_COUNT) {
+      Chess chess = new Chess();
+      for (int ply = 0; ply < GATE_OPENING_PLIES; ply++) {
+        int count = chess.generateMoves(moves);
+        int move = moves[random.nextInt(count)];
+        chess.move(Move.fromCell(move), Move.toCell(move));
+      }
+      if (chess.getState().getCurrentPhase() == Phase.RUNNING && keys.add(chess.getPositionKey())) {
+        openings.add(chess);
+      }
+    }
+    return openings;
+  }
+
+  /**
+   * Rate all positions over and over with each evaluation and print how many ratings per second
+   * each evaluation manages. Each evaluation is run once before it is measured, so that the
+   * measurement is not distorted by the compilation of its code.
+   *
+   * @param positions the positions to rate.
+   * @param time the time each evaluation is measured for in milliseconds.
+   */
+  private static void benchmarkEvaluations(List<Chess> positions, long time) {
+    List<Node> nodes = new ArrayList<>();
+    for (Chess position : positions) {
+      nodes.add(new Node(position, null, null, true));
+    }
+    StrategyEvaluation[] evaluations = {new MiniMaxAlgorithm(), new BitBoardEvaluation()};
+    System.out.printf("%nevaluation             evaluations/s%n");
+    for (StrategyEvaluation evaluation : evaluations) {
+      measureEvaluations(evaluation, nodes, time);
+      System.out.printf(
+          "%-20s %15.0f%n",
+          evaluation.getClass().getSimpleName(), measureEvaluations(evaluation, nodes, time));
+    }
+  }
+
+  /**
+   * Rate the given nodes over and over for the given time.
+   *
+   * @param evaluation the evaluation to measure.
+   * @param nodes the nodes to rate.
+   * @param time the duration of the measurement in milliseconds.
+   * @return the number of ratings per second.
+   */
+  private static double measureEvaluations(
+      StrategyEvaluation evaluation, List<Node> nodes, long time) {
+    long start = System.nanoTime();
+    long end = start + time * NANOS_PER_MILLI;
+    long count = 0;
+    double checksum = 0;
+    long now;
+    do {
+      for (Node node : nodes) {
+        checksum += evaluation.evaluateState(node, 1);
+      }
+      count += nodes.size();
+      now = System.nanoTime();
+    } while (now - end < 0);
+    if (Double.isNaN(checksum)) {
+      System.out.println("invalid evaluation");
+    }
+    return count * NANOS_PER_SECOND / (now - start);
+  }
+
+  /**
+   * Search all positions with the plain alpha-beta search and with the principal variation search
+   * to increasing fixed depths, and print the number of positions each visits and how often both
+   * choose the same move. Both searches use a transposition table of the same size.
+   *
+   * @param positions the positions to search.
+   */
+  private static void benchmarkNodeCounts(List<Chess> positions) {
+    System.out.printf("%ndepth  alpha-beta nodes   PVS nodes  saved  re-searches  same move%n");
+    for (int depth = 1; depth <= MAX_NODE_COUNT_DEPTH; depth++) {
+      long alphaBetaNodes = 0;
+      long principalVariationNodes = 0;
+      long researches = 0;
+      int sameMoves = 0;
+      for (Chess position : positions) {
+        DepthFirstSearch alphaBeta = createSearch(false);
+        alphaBeta.search(position, depth);
+        DepthFirstSearch principalVariation = createSearch(true);
+        principalVariation.search(position, depth);
+        alphaBetaNodes += alphaBeta.getStatistics().getNodes();
+        principalVariationNodes += principalVariation.getStatistics().getNodes();
+        researches += principalVariation.getStatistics().getResearches();
+        if (alphaBeta.getBestMove() == principalVariation.getBestMove()) {
+          sameMoves++;
+        }
+      }
+      System.out.printf(
+          "%5d %17d %11d %5.1f%% %12d %6d/%d%n",
+          depth,
+          alphaBetaNodes,
+          principalVariationNodes,
+          100 - 100.0 * principalVariationNodes / alphaBetaNodes,
+          researches,
+          sameMoves,
+          positions.size());
+    }
+  }
+
+  /**
+   * Search the positions one after another with an engine that reuses the results of its previous
+   * search and with one that starts every search cold, and print the number of positions both
+   * expand per move. The test positions follow each other by two moves, like the positions the AI
+   * has to move in during a game. The depth-first engine searches to a fixed depth.
+   *
+   * @param mode the engine to measure.
+   * @param positions the positions to search, in the order of the game.
+   */
+  private static void benchmarkSearchReuse(SearchMode mode, List<Chess> positions) {
+    MiniMaxAlgorithm cold = new MiniMaxAlgorithm();
+    MiniMaxAlgorithm warm = new MiniMaxAlgorithm();
+    for (MiniMaxAlgorithm engine : new MiniMaxAlgorithm[] {cold, warm}) {
+      engine.setSearchMode(mode);
+      engine.setTimeBudget(0);
+      engine.setSearchDepth(REUSE_SEARCH_DEPTH);
+    }
+    cold.setSearchReuse(false);
+    long coldNodes = 0;
+    long warmNodes = 0;
+    int sameMoves = 0;
+    for (Chess position : positions) {
+      cold.executeMinimax(new Chess(position));
+      warm.executeMinimax(new Chess(position));
+      coldNodes += cold.getStatistics().getNodes();
+      warmNodes += warm.getStatistics().getNodes();
+      if (cold.getBestMoveFrom().equals(warm.getBestMoveFrom())
+          && cold.getBestMoveTo().equals(warm.getBestMoveTo())) {
+        sameMoves++;
+      }
+    }
+    System.out.printf(
+        "%n%s with search reuse%ncold nodes/move  warm nodes/move  saved  same move%n"
+            + "%15d %16d %5.1f%% %6d/%d%n",
+        mode,
+        coldNodes / positions.size(),
+        warmNodes / positions.size(),
+        100 - 100.0 * warmNodes / coldNodes,
+        sameMoves,
+        positions.size());
+  }
+
+  /**
+   * Create a depth-first search with its own transposition table.
+   *
+   * @param principalVariationSearch true for a principal variation search, false for a plain
+   *     alpha-beta search.
+   * @return the new search.
+   */
+  private static DepthFirstSearch createSearch(boolean principalVariationSearch) {
+    DepthFirstSearch search =
+        new DepthFirstSearch(
+            new MiniMaxAlgorithm(), new TranspositionTable(TABLE_SIZE_IN_MEGABYTES));
+    search.setPrincipalVariationSearch(principalVariationSearch);
+    return search;
+  }
+
+  /**
+   * Let the selective engine play against the depth-first engine with the same number of visited
+   * positions per move, and both of them against the legacy engine. The gate passes unless the
+   * selective engine scored clearly less than half of the points against the depth-first engine,
+   * that is unless pruning and reducing moves cost more strength than the deeper search gained, or
+   * either engine scored clearly less than half of the points against the legacy engine, which
+   * would point to a fault they share.
+   *
+   * @param openings the starting positions of the games.
+   * @return true if the selective engine passed the gate, false otherwise.
+   */
+  static boolean playSelfPlayGate(List<Chess> openings) {
+    boolean selectivePassed =
+        playMatch(SearchMode.SELECTIVE, SearchMode.DEPTH_FIRST, openings, SELF_PLAY_NODES_PER_MOVE);
+    boolean selectiveSound =
+        playMatch(SearchMode.SELECTIVE, SearchMode.LEGACY, openings, SELF_PLAY_NODES_PER_MOVE);
+    boolean depthFirstSound =
+        playMatch(SearchMode.DEPTH_FIRST, SearchMode.LEGACY, openings, SELF_PLAY_NODES_PER_MOVE);
+    return selectivePassed && selectiveSound && depthFirstSound;
+  }
+
+  /**
+   * Let two engines play against each other, starting from each position once with each color,
+   * and print the result. A win counts one point, a draw half a point. The challenger passes if its
+   * score is at most GATE_TOLERANCE_IN_STANDARD_ERRORS standard errors below half of the points,
+   * so that an engine of equal strength passes regardless of the noise of the games. Both engines
+   * either visit the same number of positions per move or, if no node budget is given, take the
+   * same time per move.
+   *
+   * @param challenger the engine whose result is reported.
+   * @param opponent the engine the challenger plays against.
+   * @param positions the starting positions of the games.
+   * @param nodesPerMove the node budget of both engines, or 0 for SELF_PLAY_TIME_PER_MOVE_MILLIS.
+   *     The legacy engine ignores both and always searches to its fixed depth.
+   * @return true if the challenger did not score clearly less than half of the points, false
+   *     otherwise.
+   */
+  static boolean playMatch(
+      SearchMode challenger, SearchMode opponent, List<Chess> positions, long nodesPerMove) {
+    MiniMaxAlgorithm challengerEngine = createMatchEngine(challenger, nodesPerMove);
+    MiniMaxAlgorithm opponentEngine = createMatchEngine(opponent, nodesPerMove);
+    int wins = 0;
+    int draws = 0;
+    int losses = 0;
+    for (Chess position : positions) {
+      for (Player challengerPlayer : Player.values()) {
+        Player winner =
+            challengerPlayer == Player.WHITE
+                ? playGame(position, challengerEngine, opponentEngine)
+                : playGame(position, opponentEngine, challengerEngine);
+        if (winner == null) {
+          draws++;
+        } else if (winner == challengerPlayer) {
+          wins++;
+        } else {
+          losses++;
+        }
+      }
+    }
+    int games = wins + draws + losses;
+    // The score of a single game is at most half a point away from the expected half point.
+    double standardError = 0.5 * Math.sqrt(games);
+    boolean passed =
+        wins + 0.5 * draws >= 0.5 * games - GATE_TOLERANCE_IN_STANDARD_ERRORS * standardError;
+    System.out.printf(
+        "%n%s against %s, %s per move%n%d wins, %d draws, %d losses: %s%n",
+        challenger,
+        opponent,
+        nodesPerMove > 0 ? nodesPerMove + " nodes" : SELF_PLAY_TIME_PER_MOVE_MILLIS + " ms",
+        wins,
+        draws,
+        losses,
+        passed ? "passed" : "failed");
+    return passed;
+  }
+
+  /**
+   * Create an engine for a match.
+   *
+   * @param mode the search mode of the engine.
+   * @param nodesPerMove the node budget of the engine, or 0 for SELF_PLAY_TIME_PER_MOVE_MILLIS.
+   * @return the new engine.
+   */
+  private static MiniMaxAlgorithm createMatchEngine(SearchMode mode, long nodesPerMove) {
+    MiniMaxAlgorithm engine = new MiniMaxAlgorithm();
+    engine.setSearchMode(mode);
+    engine.setTimeBudget(SELF_PLAY_TIME_PER_MOVE_MILLIS);
+    engine.setNodeBudget(nodesPerMove);
+    return engine;
+  }
+
+  /**
+   * Play a game between two engines until it is finished.
+   *
+   * @param start the position the game starts from, it is not changed.
+   * @param white the engine that plays the white pawns.
+   * @param black the engine that plays the black pawns.
+   * @return the winner of the game, or null if the game ended in a draw.
+   */
+  private static Player playGame(Chess start, MiniMaxAlgorithm white, MiniMaxAlgorithm black) {
+    Chess chess = new Chess(start);
+    while (chess.getState().getCurrentPhase() == Phase.RUNNING) {
+      MiniMaxAlgorithm engine =
+          chess.getState().getCurrentPlayer() == Player.WHITE ? white : black;
+      engine.executeMinimax(chess);
+      chess.move(engine.getBestMoveFrom(), engine.getBestMoveTo());
+    }
+    return chess.getState().getWinnerOrNull();
+  }
+
+  /**
+   * Search all positions with a parallel engine, doubling the number of threads from one up to the
+   * given maximum, and print the speed of each run.
+   *
+   * @param mode the engine to measure.
+   * @param positions the positions to search.
+   * @param timePerPosition the time budget of each search in milliseconds.
+   * @param maxThreads the largest number of threads to measure.
+   */
+  private static void benchmarkThreads(
+      SearchMode mode, List<Chess> positions, long timePerPosition, int maxThreads) {
+    System.out.printf("%n%s%nthreads     nodes/s  speedup  avg depth%n", mode);
+    double singleThreadSpeed = 0;
+    for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+      MiniMaxAlgorithm engine = new MiniMaxAlgorithm();
+      engine.setSearchMode(mode);
+      engine.setThreadCount(threads);
+      engine.setTimeBudget(timePerPosition);
+      long nodes = 0;
+      long millis = 0;
+      long depthSum = 0;
+      for (Chess position : positions) {
+        engine.executeMinimax(new Chess(position));
+        SearchStatistics statistics = engine.getStatistics();
+        nodes += statistics.getNodes();
+        millis += statistics.getElapsedMillis();
+        depthSum += statistics.getDepth();
+      }
+      double speed = millis == 0 ? 0 : nodes * MILLIS_PER_SECOND / (double) millis;
+      if (threads == 1) {
+        singleThreadSpeed = speed;
+      }
+      System.out.printf(
+          "%7d %11.0f %7.2fx %10.1f%n",
+          threads, speed, speed / singleThreadSpeed, (double) depthSum / positions.size());
+    }
+  }
+
+  /**
+   * Return the next thread count to measure: the count is doubled, but the maximum is always
+   * measured as well.
+   *
+   * @param threads the thread count that was just measured.
+   * @param maxThreads the largest thread count to measure.
+   * @return the next thread count, or a value above the maximum if all counts were measured.
+   */
+  private static int nextThreadCount(int threads, int maxThreads) {
+    if (threads == maxThreads) {
+      return maxThreads + 1;
+    }
+    return Math.min(2 * threads, maxThreads);
+  }
+}
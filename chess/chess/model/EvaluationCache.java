@@ -0,0 +1,116 @@
+package chess.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class EvaluationCache remembers the ratings of positions, so that a position that is reached
+ * again is not rated from scratch. It wraps another evaluation and caches the sum of the four terms
+ * that only depend on the pawns on the field: their number, their distance to the opposite line,
+ * their risk of capture and their isolation. The closeness to winning depends on how far the
+ * position lies in the future, so it is computed by the wrapped evaluation on every call and added
+ * to the cached sum. Both are added in the same order as in {@link
+ * MiniMaxAlgorithm#evaluateState(Node, int)}, so the cached rating is exactly the uncached one.
+ *
+ * <p>The legacy and alpha-beta engines rate every position through the cache. The depth-first
+ * engines rate the positions of their own board with an {@link IncrementalEvaluation}, which is
+ * cheaper than a lookup and bypasses the cache.
+ *
+ * <p>The cache has a fixed number of slots, which is a power of two, and the slot of a position is
+ * given by the lower bits of its Zobrist key. A newer position simply replaces an older one in its
+ * slot. The cache is shared by the threads of the parallel engines without locking: the key is
+ * stored as the exclusive or with the value, so a slot that is read while another thread writes it
+ * does not reproduce the key and counts as a miss.
+ */
+final class EvaluationCache implements StrategyEvaluation {
+
+  private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+  private static final int BYTES_PER_MEGABYTE = 1 << 20;
+
+  private final StrategyEvaluation evaluation;
+  private final long[] keys;
+  private final long[] values;
+  private final int mask;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Construct a cache for the given evaluation that uses at most the given amount of memory.
+   *
+   * @param evaluation the evaluation whose ratings are cached.
+   * @param sizeInMegabytes the memory the cache may use, at least 1.
+   */
+  EvaluationCache(StrategyEvaluation evaluation, int sizeInMegabytes) {
+    this.evaluation = evaluation;
+    long bytes = (long) Math.max(1, sizeInMegabytes) * BYTES_PER_MEGABYTE;
+    int entries = Integer.highestOneBit((int) Math.min(bytes / BYTES_PER_ENTRY, 1 << 30));
+    keys = new long[entries];
+    values = new long[entries];
+    mask = entries - 1;
+  }
+
+  @Override
+  public double evaluateState(Node node, int depth) {
+    long key = node.getChessStateOfNode().getState().getField().getBitBoard().getKey();
+    int slot = (int) key & mask;
+    long valueBits = values[slot];
+    double staticValue;
+    if ((keys[slot] ^ valueBits) == key) {
+      hits.increment();
+      staticValue = Double.longBitsToDouble(valueBits);
+    } else {
+      misses.increment();
+      staticValue =
+          evaluation.evaluatePawnCountOnField(node)
+              + evaluation.evaluateDistanceToOppositeLine(node)
+              + evaluation.evaluateRiskOfCapture(node)
+              + evaluation.evaluateIsolationOfPawns(node);
+      valueBits = Double.doubleToRawLongBits(staticValue);
+      keys[slot] = key ^ valueBits;
+      values[slot] = valueBits;
+    }
+    return staticValue + evaluation.evaluateClosenessToWinning(node, depth);
+  }
+
+  @Override
+  public double evaluatePawnCountOnField(Node node) {
+    return evaluation.evaluatePawnCountOnField(node);
+  }
+
+  @Override
+  public double evaluateDistanceToOppositeLine(Node node) {
+    return evaluation.evaluateDistanceToOppositeLine(node);
+  }
+
+  @Override
+  public double evaluateRiskOfCapture(Node node) {
+    return evaluation.evaluateRiskOfCapture(node);
+  }
+
+  @Override
+  public double evaluateIsolationOfPawns(Node node) {
+    return evaluation.evaluateIsolationOfPawns(node);
+  }
+
+  @Override
+  public double evaluateClosenessToWinning(Node node, int lookAhead) {
+    return evaluation.evaluateClosenessToWinning(node, lookAhead);
+  }
+
+  /**
+   * Getter: returns how often a rating was found in the cache since it was created.
+   *
+   * @return the number of hits.
+   */
+  long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Getter: returns how often a rating had to be computed since the cache was created.
+   *
+   * @return the number of misses.
+   */
+  long getMisses() {
+    return misses.sum();
+  }
+}
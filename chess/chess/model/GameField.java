@@ -11,13 +11,22 @@ import java.util.Optional;
  * a cell on the board whether it contains a pawn or not, to set a pawn to a specific cell and to
  * remove one from a cell. Also, the method throwErrorWhenOutOfBounds checks whether the row and
  * column values of a cell are within the bounds of the chess board which comes in handy when
- * checking if a given moving action is valid or not.
+ * checking if a given moving action is valid or not. The pawns themselves are stored in a {@link
+ * BitBoard}, this class is the cell based view on it that is used by the user interfaces.
+ *
+ * <p>The bit masks of the board are an index of the pawns of each player that every change of a
+ * cell keeps up to date. The pawns can be visited through that index with {@link
+ * #forEachPawn(PawnVisitor)}, which creates no objects, instead of collecting them in a map with
+ * {@link #getCellsOccupiedWithPawns()}.
  */
 public class GameField implements Serializable {
 
   public static final int SIZE = 8;
 
-  private Pawn[][] field = new Pawn[SIZE][SIZE];
+  private static final Pawn WHITE_PAWN = new Pawn(Player.WHITE);
+  private static final Pawn BLACK_PAWN = new Pawn(Player.BLACK);
+
+  private final BitBoard board = new BitBoard();
 
   /**
    * Check whether there is a pawn set on a specific cell or not. A cell can be empty, which is why
@@ -28,26 +37,126 @@ public class GameField implements Serializable {
    */
   public Optional<Pawn> get(Cell cell) {
     throwErrorWhenOutOfBounds(cell);
-    int cellRow = cell.getRow();
-    int cellCol = cell.getColumn();
-    return Optional.ofNullable(field[cellRow][cellCol]);
+    return get(cell.getSquare());
+  }
+
+  /**
+   * Check whether there is a pawn set on the cell with the given square index or not.
+   *
+   * @param square the square index of the cell, see {@link Cell#getSquare()}
+   * @return an Optional pawn if non-null, otherwise returns an empty Optional.
+   * @throws IllegalArgumentException if the square index lies outside of the field
+   */
+  public Optional<Pawn> get(int square) {
+    Player player = getPlayer(square);
+    if (player == null) {
+      return Optional.empty();
+    }
+    return Optional.of(player == Player.WHITE ? WHITE_PAWN : BLACK_PAWN);
+  }
+
+  /**
+   * Return the player whose pawn stands on the cell with the given square index. Unlike {@link
+   * #get(int)}, this method creates no objects.
+   *
+   * @param square the square index of the cell, see {@link Cell#getSquare()}
+   * @return the player the pawn belongs to, or null if the cell is empty
+   * @throws IllegalArgumentException if the square index lies outside of the field
+   */
+  public Player getPlayer(int square) {
+    throwErrorWhenOutOfBounds(square);
+    return board.getPlayer(square);
+  }
+
+  /**
+   * Check whether a pawn of any player stands on the cell with the given square index.
+   *
+   * @param square the square index of the cell, see {@link Cell#getSquare()}
+   * @return true if the cell is occupied, false otherwise
+   * @throws IllegalArgumentException if the square index lies outside of the field
+   */
+  public boolean isOccupied(int square) {
+    throwErrorWhenOutOfBounds(square);
+    return board.isOccupied(square);
+  }
+
+  /**
+   * Return the bit board that backs this game field. The game logic and the minimax algorithm work
+   * on it directly instead of going through the cell based methods.
+   *
+   * @return the bit board of this field
+   */
+  BitBoard getBitBoard() {
+    return board;
+  }
+
+  /**
+   * The interface PawnVisitor is implemented by the callers of {@link #forEachPawn(PawnVisitor)}:
+   * it is called once for every pawn on the field.
+   */
+  @FunctionalInterface
+  public interface PawnVisitor {
+
+    /**
+     * Visit the pawn on the given cell.
+     *
+     * @param column the column of the cell the pawn stands on
+     * @param row the row of the cell the pawn stands on
+     * @param player the player the pawn belongs to
+     */
+    void visit(int column, int row, Player player);
+  }
+
+  /**
+   * Visit all pawns on the field, first the pawns of the white player and then the pawns of the
+   * black player, each ordered by rows and then by columns. No objects are created.
+   *
+   * @param visitor the visitor that is called for every pawn
+   */
+  public void forEachPawn(PawnVisitor visitor) {
+    forEachPawn(Player.WHITE, visitor);
+    forEachPawn(Player.BLACK, visitor);
+  }
+
+  /**
+   * Visit all pawns of the given player, ordered by rows and then by columns. No objects are
+   * created.
+   *
+   * @param player the player whose pawns are visited
+   * @param visitor the visitor that is called for every pawn
+   */
+  public void forEachPawn(Player player, PawnVisitor visitor) {
+    long pawns = board.getPawns(player);
+    while (pawns != 0) {
+      int square = Long.numberOfTrailingZeros(pawns);
+      pawns &= pawns - 1;
+      visitor.visit(BitBoard.column(square), BitBoard.row(square), player);
+    }
   }
 
   /**
-   * Returns all {@link Cell cells} that are currently occupied by a pawn.
+   * Count the pawns of the given player on the field.
+   *
+   * @param player the player whose pawns are counted
+   * @return the number of pawns of the player
+   */
+  public int countPawns(Player player) {
+    return board.countPawns(player);
+  }
+
+  /**
+   * Returns all {@link Cell cells} that are currently occupied by a pawn. The map is built anew on
+   * every call, so code that runs often should use {@link #forEachPawn(PawnVisitor)} instead.
    *
    * @return A map with all cells that have a pawn on them.
    */
   public Map<Cell, Player> getCellsOccupiedWithPawns() {
     Map<Cell, Player> occupiedCells = new HashMap<Cell, Player>();
-    for (int row = 7; row >= 0; row--) {
-      for (int col = 0; col < GameField.SIZE; col++) {
-        chess.model.Cell currentCell = new chess.model.Cell(col, row);
-        Optional<Pawn> cellInput = get(currentCell);
-        if (cellInput.isPresent()) {
-          occupiedCells.put(currentCell, cellInput.get().getPlayer());
-        }
-      }
+    long occupied = board.getOccupied();
+    while (occupied != 0) {
+      int square = Long.numberOfTrailingZeros(occupied);
+      occupied &= occupied - 1;
+      occupiedCells.put(Cell.ofSquare(square), board.getPlayer(square));
     }
     return occupiedCells;
   }
@@ -60,9 +169,13 @@ public class GameField implements Serializable {
    * @throws IllegalArgumentException if given cell is out of field bounds
    */
   void set(Cell cell, Pawn newValue) {
-    int cellRow = cell.getRow();
-    int cellCol = cell.getColumn();
-    field[cellRow][cellCol] = newValue;
+    throwErrorWhenOutOfBounds(cell);
+    int square = cell.getSquare();
+    if (newValue == null) {
+      board.clear(square);
+    } else {
+      board.set(square, newValue.getPlayer());
+    }
   }
 
   /**
@@ -73,12 +186,10 @@ public class GameField implements Serializable {
    * @throws IllegalArgumentException if given cell is out of field bounds
    */
   Pawn remove(Cell cell) {
-    int cellRow = cell.getRow();
-    int cellCol = cell.getColumn();
     Optional<Pawn> toBeRemoved = get(cell);
     assert toBeRemoved.isPresent()
         : "Selected cell " + cell + " is empty. Could not execute " + "method 'remove'";
-    field[cellRow][cellCol] = null;
+    board.clear(cell.getSquare());
     return toBeRemoved.get();
   }
 
@@ -93,6 +204,17 @@ public class GameField implements Serializable {
     }
   }
 
+  /**
+   * Checks a square index for its bounds and throws an exception in case of failure.
+   *
+   * @param square The square index to be checked.
+   */
+  private void throwErrorWhenOutOfBounds(int square) {
+    if (square < 0 || square >= SIZE * SIZE) {
+      throw new IllegalArgumentException("Square index is out of bounds: " + square);
+    }
+  }
+
   /**
    * Checks whether a given cell lies wihin the bound of the game field or not.
    *
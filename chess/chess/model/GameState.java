@@ -95,6 +95,16 @@ public class GameState implements Serializable {
     return currentPlayer;
   }
 
+  /**
+   * Return the winner without checking the phase of the game. This is used to save and restore the
+   * complete state when moves are taken back.
+   *
+   * @return the winner, or null if there is none
+   */
+  Player getWinnerOrNull() {
+    return winner;
+  }
+
   /**
    * Return the winner of the current game. This method may only be called if the current game is
    * finished.
@@ -0,0 +1,167 @@
+package chess.model;
+
+import static chess.model.Chess.LAST_ROW;
+
+import java.util.Arrays;
+
+/**
+ * The class IncrementalEvaluation rates positions with the same formulas as {@link
+ * MiniMaxAlgorithm}, but does not look at the whole field for every rating. Instead, it is attached
+ * to the {@link BitBoard} of the game a search works on and keeps running totals of the number of
+ * pawns and their distance to the starting line of the opponent. A change of a square only changes
+ * the totals by the contribution of the pawn that is removed or added.
+ *
+ * <p>The pawns at risk of capture and the isolated pawns depend on the neighbours of every pawn.
+ * They are computed with the shifts and masks of {@link BitBoardEvaluation}, which take fewer
+ * operations than keeping their totals up to date on every change.
+ *
+ * <p>Positions that do not belong to the attached board are rated by the full evaluation. With
+ * assertions enabled, every rating of the attached board is compared with the full evaluation.
+ *
+ * <p>The ratings of the attached board do not go through the {@link EvaluationCache}: looking up a
+ * position there costs more than computing its terms from the totals and masks. So the depth-first
+ * engines only use the cache for the positions they rate with the full evaluation, and their
+ * searches count few or no cache lookups.
+ */
+final class IncrementalEvaluation implements StrategyEvaluation {
+
+  private static final int WHITE = Player.WHITE.ordinal();
+  private static final int BLACK = Player.BLACK.ordinal();
+
+  private final StrategyEvaluation fullEvaluation;
+  private final int[] pawnCount = new int[Player.values().length];
+  private final int[] distance = new int[Player.values().length];
+  private final BitBoardEvaluation structureEvaluation = new BitBoardEvaluation();
+  private BitBoard board;
+
+  /**
+   * Construct an evaluation that falls back to the given evaluation for positions of other boards.
+   *
+   * @param fullEvaluation the evaluation that computes the same ratings from scratch.
+   */
+  IncrementalEvaluation(StrategyEvaluation fullEvaluation) {
+    this.fullEvaluation = fullEvaluation;
+  }
+
+  /**
+   * Attach the evaluation to a board and compute the totals of its current position. The board the
+   * evaluation was attached to before is detached.
+   *
+   * @param newBoard the board whose changes are followed from now on.
+   */
+  void attach(BitBoard newBoard) {
+    if (board != null && board.getIncrementalEvaluation() == this) {
+      board.setIncrementalEvaluation(null);
+    }
+    board = newBoard;
+    board.setIncrementalEvaluation(this);
+    Arrays.fill(pawnCount, 0);
+    Arrays.fill(distance, 0);
+    long pawns = board.getOccupied();
+    while (pawns != 0) {
+      int square = Long.numberOfTrailingZeros(pawns);
+      pawns &= pawns - 1;
+      addPawn(square, 1);
+    }
+  }
+
+  /**
+   * Subtract the contribution of the pawn on the given square. Called by the board right before the
+   * square changes.
+   *
+   * @param square the square that is about to change.
+   */
+  void beforeChange(int square) {
+    if (board.isOccupied(square)) {
+      addPawn(square, -1);
+    }
+  }
+
+  /**
+   * Add the contribution of the pawn on the given square. Called by the board right after the
+   * square changed.
+   *
+   * @param square the square that has changed.
+   */
+  void afterChange(int square) {
+    if (board.isOccupied(square)) {
+      addPawn(square, 1);
+    }
+  }
+
+  /**
+   * Add or subtract the material and the distance of the pawn on the given square.
+   *
+   * @param square a square that holds a pawn.
+   * @param sign 1 to add the contribution, -1 to subtract it.
+   */
+  private void addPawn(int square, int sign) {
+    Player player = board.getPlayer(square);
+    int row = BitBoard.row(square);
+    pawnCount[player.ordinal()] += sign;
+    distance[player.ordinal()] += sign * (player == Player.WHITE ? row : LAST_ROW - row);
+  }
+
+  /**
+   * Check whether a node shows the position of the attached board.
+   *
+   * @param node the node that is evaluated.
+   * @return true if the running totals describe the node, false otherwise.
+   */
+  private boolean isAttachedTo(Node node) {
+    return board != null && node.getChessStateOfNode().getState().getField().getBitBoard() == board;
+  }
+
+  @Override
+  public double evaluateState(Node node, int depth) {
+    if (!isAttachedTo(node)) {
+      return fullEvaluation.evaluateState(node, depth);
+    }
+    double value =
+        evaluatePawnCountOnField(node)
+            + evaluateDistanceToOppositeLine(node)
+            + evaluateRiskOfCapture(node)
+            + evaluateIsolationOfPawns(node)
+            + evaluateClosenessToWinning(node, depth);
+    assert value == fullEvaluation.evaluateState(node, depth)
+        : "incremental evaluation " + value + " differs from full evaluation";
+    return value;
+  }
+
+  @Override
+  public double evaluatePawnCountOnField(Node node) {
+    if (!isAttachedTo(node)) {
+      return fullEvaluation.evaluatePawnCountOnField(node);
+    }
+    return pawnCount[BLACK] - (1.5 * pawnCount[WHITE]);
+  }
+
+  @Override
+  public double evaluateDistanceToOppositeLine(Node node) {
+    if (!isAttachedTo(node)) {
+      return fullEvaluation.evaluateDistanceToOppositeLine(node);
+    }
+    return distance[BLACK] - 1.5 * distance[WHITE];
+  }
+
+  @Override
+  public double evaluateRiskOfCapture(Node node) {
+    if (!isAttachedTo(node)) {
+      return fullEvaluation.evaluateRiskOfCapture(node);
+    }
+    return structureEvaluation.evaluateRiskOfCapture(node);
+  }
+
+  @Override
+  public double evaluateIsolationOfPawns(Node node) {
+    if (!isAttachedTo(node)) {
+      return fullEvaluation.evaluateIsolationOfPawns(node);
+    }
+    return structureEvaluation.evaluateIsolationOfPawns(node);
+  }
+
+  @Override
+  public double evaluateClosenessToWinning(Node node, int lookAhead) {
+    return fullEvaluation.evaluateClosenessToWinning(node, lookAhead);
+  }
+}
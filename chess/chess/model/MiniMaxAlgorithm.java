@@ -4,23 +4,350 @@ import static chess.model.Chess.FIRST_ROW;
 import static chess.model.Chess.LAST_ROW;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 public class MiniMaxAlgorithm implements StrategyEvaluation {
 
   private static final int ALGORITHM_DEPTH = 3;
-  private static final double WINNING_EVALUATION_VALUE = 5000;
+  static final double WINNING_EVALUATION_VALUE = 5000;
+  private static final int DEFAULT_TABLE_SIZE_IN_MEGABYTES = 16;
+  private static final long DEFAULT_TIME_BUDGET_MILLIS = 200;
+  private static final int DEFAULT_EVALUATION_CACHE_SIZE_IN_MEGABYTES = 4;
+  private static final int DEFAULT_PAWN_STRUCTURE_CACHE_SIZE_IN_MEGABYTES = 1;
+  private static final int PLIES_BETWEEN_SEARCHES = 2;
+  private static final long MAX_PONDER_MILLIS = 60_000;
+  private static final long NANOS_PER_MILLI = 1_000_000L;
+  private static final int MAX_MOVES = 32;
+  static final long PROGRESS_INTERVAL_MILLIS = 100;
   private Tree algorithmTree;
+  private boolean legacyTreeReusable;
+  private TranspositionTable transpositionTable;
+  private int tableSizeInMegabytes = DEFAULT_TABLE_SIZE_IN_MEGABYTES;
+  private SearchStatistics statistics = new SearchStatistics();
+  private EvaluationCache evaluationCache =
+      new EvaluationCache(this, DEFAULT_EVALUATION_CACHE_SIZE_IN_MEGABYTES);
+  private PawnStructureCache whitePawnStructure =
+      new PawnStructureCache(Player.WHITE, DEFAULT_PAWN_STRUCTURE_CACHE_SIZE_IN_MEGABYTES);
+  private PawnStructureCache blackPawnStructure =
+      new PawnStructureCache(Player.BLACK, DEFAULT_PAWN_STRUCTURE_CACHE_SIZE_IN_MEGABYTES);
+  private SearchMode searchMode = SearchMode.LEGACY;
+  private long timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+  private long nodeBudget;
+  private boolean lateMoveReductions = true;
+  private boolean futilityPruning = true;
+  private int searchDepth = ALGORITHM_DEPTH;
+  private boolean searchReuse = true;
+  private MoveOrdering moveOrdering = new MoveOrdering(DepthFirstSearch.MAX_PLY);
+  private boolean moveOrderingPrepared;
+  private volatile boolean pondering;
+  private int[] principalVariation = new int[0];
+  private final Object ponderLock = new Object();
+  private DepthFirstSearch ponderSearch;
+  private Thread ponderThread;
+  private long ponderKey;
+  private long ponderStart;
+  private int threadCount = Runtime.getRuntime().availableProcessors();
+  private ForkJoinPool forkJoinPool;
+  private final MonteCarloTreeSearch monteCarloTreeSearch = new MonteCarloTreeSearch();
+  private final AtomicBoolean cancellation = new AtomicBoolean();
+  private Consumer<SearchProgress> progressListener;
+  private Cell bestMoveFrom;
+  private Cell bestMoveTo;
 
   /** Getter: returns the value of the algorithmTree attribute. */
   Tree getTree() {
     return algorithmTree;
   }
 
+  /**
+   * Select the engine that is used by {@link #executeMinimax(Chess)}. The legacy engine is used
+   * unless another one is selected.
+   *
+   * @param searchMode the search mode to use from now on
+   */
+  public void setSearchMode(SearchMode searchMode) {
+    this.searchMode = searchMode;
+  }
+
+  /**
+   * Getter: returns the engine that is used by {@link #executeMinimax(Chess)}.
+   *
+   * @return the active search mode
+   */
+  public SearchMode getSearchMode() {
+    return searchMode;
+  }
+
+  /**
+   * Set the time the depth-first search may take for a move. The search deepens iteratively and
+   * plays the best move of the deepest iteration it completed within the budget. With a budget of
+   * 0, the search always looks exactly as many moves ahead as set by {@link #setSearchDepth(int)},
+   * no matter how long that takes.
+   *
+   * @param timeBudgetMillis the time budget in milliseconds, or 0 for a fixed depth
+   */
+  public void setTimeBudget(long timeBudgetMillis) {
+    this.timeBudgetMillis = timeBudgetMillis;
+  }
+
+  /**
+   * Getter: returns the time the depth-first search may take for a move.
+   *
+   * @return the time budget in milliseconds, or 0 for a search of fixed depth
+   */
+  public long getTimeBudget() {
+    return timeBudgetMillis;
+  }
+
+  /**
+   * Limit the depth-first, principal variation and selective engines by the number of positions
+   * they visit instead of the time they take. The search deepens iteratively until the budget is
+   * used up, just like with a time budget, but always finds the same move on every machine, which
+   * makes matches between engines reproducible. The node budget replaces the time budget.
+   *
+   * <p>Lazy SMP counts only the positions of its main thread against the budget. The helper threads
+   * search until the main thread has finished, so its moves are not reproducible.
+   *
+   * @param nodeBudget the number of positions a search may visit, or 0 to use the time budget
+   */
+  void setNodeBudget(long nodeBudget) {
+    this.nodeBudget = nodeBudget;
+  }
+
+  /**
+   * Set the number of moves the depth-first engines look ahead if there is no time budget. The
+   * legacy and alpha-beta engines always look ALGORITHM_DEPTH moves ahead.
+   *
+   * @param searchDepth the number of moves to look ahead, at least 1
+   */
+  public void setSearchDepth(int searchDepth) {
+    this.searchDepth = Math.max(1, Math.min(searchDepth, DepthFirstSearch.MAX_PLY));
+  }
+
+  /**
+   * Getter: returns the number of moves the depth-first engines look ahead if there is no time
+   * budget.
+   *
+   * @return the fixed search depth
+   */
+  public int getSearchDepth() {
+    return searchDepth;
+  }
+
+  /**
+   * Select whether a search starts with what the search of the previous move has learned. The
+   * depth-first engines then keep the best moves of the transposition table and the killer moves
+   * and history scores of the move ordering, and the legacy engine keeps the part of its tree that
+   * starts in the current position. Since the current position usually arose from the starting
+   * position of the previous search by two moves, much of that work applies again.
+   *
+   * @param searchReuse true to reuse the results of the previous search, false to start cold
+   */
+  public void setSearchReuse(boolean searchReuse) {
+    this.searchReuse = searchReuse;
+  }
+
+  /**
+   * Getter: returns whether a search starts with what the search of the previous move has learned.
+   *
+   * @return true if the results of the previous search are reused, false otherwise
+   */
+  public boolean isSearchReuse() {
+    return searchReuse;
+  }
+
+  /**
+   * Select whether the AI thinks on the time of its opponent. After the AI has moved, the
+   * depth-first engines then predict the reply of the opponent from the principal variation of
+   * their search and search the position after that reply in a background thread. If the opponent
+   * plays the predicted reply, the result of that search is used at once. Otherwise, the position
+   * is searched as usual. Pondering is off by default; switching it off stops a running background
+   * search.
+   *
+   * @param pondering true to search while the opponent thinks, false otherwise
+   */
+  public void setPondering(boolean pondering) {
+    this.pondering = pondering;
+    if (!pondering) {
+      stopPondering();
+    }
+  }
+
+  /**
+   * Getter: returns whether the AI thinks on the time of its opponent.
+   *
+   * @return true if pondering is switched on, false otherwise
+   */
+  public boolean isPondering() {
+    return pondering;
+  }
+
+  /**
+   * Select whether the selective engine searches quiet moves that the move ordering ranks low less
+   * deep first. A reduced move is searched again to the full depth if it turns out to be better
+   * than the best move so far.
+   *
+   * @param lateMoveReductions true to reduce late moves, false to search them to the full depth
+   */
+  public void setLateMoveReductions(boolean lateMoveReductions) {
+    this.lateMoveReductions = lateMoveReductions;
+  }
+
+  /**
+   * Getter: returns whether the selective engine reduces late moves.
+   *
+   * @return true if late moves are reduced, false otherwise
+   */
+  public boolean isLateMoveReductions() {
+    return lateMoveReductions;
+  }
+
+  /**
+   * Select whether the selective engine skips the quiet moves right before the leaves of the tree
+   * if the position is rated so badly that a single quiet move cannot save it.
+   *
+   * @param futilityPruning true to prune futile moves, false to search them
+   */
+  public void setFutilityPruning(boolean futilityPruning) {
+    this.futilityPruning = futilityPruning;
+  }
+
+  /**
+   * Getter: returns whether the selective engine prunes futile moves.
+   *
+   * @return true if futile moves are pruned, false otherwise
+   */
+  public boolean isFutilityPruning() {
+    return futilityPruning;
+  }
+
+  /**
+   * Set the listener that is told about the progress of the following searches. While the
+   * depth-first engines search, the listener is called about every PROGRESS_INTERVAL_MILLIS
+   * milliseconds with the depth, the number of positions and the best move so far; every engine
+   * calls it once more when it has found its move. The listener is called from the thread of the
+   * search, so it must not block and must hand the progress over to its own thread if necessary.
+   *
+   * @param progressListener the listener, or null to report no progress
+   */
+  public void setProgressListener(Consumer<SearchProgress> progressListener) {
+    this.progressListener = progressListener;
+  }
+
+  /**
+   * Cancel the running search from another thread. All engines check for the cancellation while
+   * they search and give up as soon as possible, and the cancelled search finds no move at all, so
+   * that the game is not changed. A running background search is stopped as well. The next search
+   * starts as usual; it is cancelled at once, however, if it runs on an interrupted thread.
+   */
+  public void cancelSearch() {
+    cancellation.set(true);
+  }
+
+  /**
+   * Getter: returns whether the last search was cancelled by {@link #cancelSearch()}.
+   *
+   * @return true if the last search was cancelled and found no move, false otherwise
+   */
+  public boolean isSearchCancelled() {
+    return cancellation.get();
+  }
+
+  /**
+   * Set the number of threads the parallel engines search with. In the Lazy SMP engine, one thread
+   * produces the move that is played, the others search the same position with slightly different
+   * depths and share their results through the transposition table. The root split engine searches
+   * the moves of the starting position with this many workers, and the Monte Carlo engine plays
+   * this many random games at the same time.
+   *
+   * @param threadCount the number of threads, at least 1
+   */
+  public void setThreadCount(int threadCount) {
+    this.threadCount = Math.max(1, threadCount);
+    if (forkJoinPool != null) {
+      forkJoinPool.shutdown();
+      forkJoinPool = null;
+    }
+  }
+
+  /**
+   * Getter: returns the number of threads the parallel engines search with.
+   *
+   * @return the number of threads
+   */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  /**
+   * Set the memory the transposition table of the depth-first search may use. The table is
+   * allocated on the next search; its number of entries is the largest power of two that fits.
+   *
+   * @param sizeInMegabytes the size of the table in megabytes, at least 1
+   */
+  public void setTranspositionTableSize(int sizeInMegabytes) {
+    this.tableSizeInMegabytes = sizeInMegabytes;
+    this.transpositionTable = null;
+  }
+
+  /**
+   * Set the memory the evaluation cache may use. The cache remembers the ratings of positions that
+   * were already rated, so that they are not computed again. A new, empty cache is created. The
+   * depth-first engines rate most positions incrementally and hardly use the cache.
+   *
+   * @param sizeInMegabytes the size of the cache in megabytes, at least 1
+   */
+  public void setEvaluationCacheSize(int sizeInMegabytes) {
+    this.evaluationCache = new EvaluationCache(this, sizeInMegabytes);
+  }
+
+  /**
+   * Set the memory the pawn structure caches may use. There is one cache per player; it remembers
+   * the cells the player's pawns attack and how many of them are isolated. New, empty caches are
+   * created.
+   *
+   * @param sizeInMegabytes the size of the cache of each player in megabytes, at least 1
+   */
+  public void setPawnStructureCacheSize(int sizeInMegabytes) {
+    this.whitePawnStructure = new PawnStructureCache(Player.WHITE, sizeInMegabytes);
+    this.blackPawnStructure = new PawnStructureCache(Player.BLACK, sizeInMegabytes);
+  }
+
+  /**
+   * Getter: returns the statistics of the last search, for example the number of visited positions
+   * and the hit rate of the transposition table.
+   *
+   * @return the statistics of the last search
+   */
+  public SearchStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Getter: returns the starting cell of the best move found by the last search.
+   *
+   * @return the cell to move the pawn from, or null if no move was found
+   */
+  Cell getBestMoveFrom() {
+    return bestMoveFrom;
+  }
+
+  /**
+   * Getter: returns the target cell of the best move found by the last search.
+   *
+   * @return the cell to move the pawn to, or null if no move was found
+   */
+  Cell getBestMoveTo() {
+    return bestMoveTo;
+  }
+
   /**
    * Build the corresponding tree for the minimax algorithm from scratch. This means that the
    * current chess game is set as the root of the tree and further notes are calculated by another
@@ -48,6 +375,10 @@ public class MiniMaxAlgorithm implements StrategyEvaluation {
    * @param depth the current depth level within the built tree
    */
   private void buildTree(Node node, int depth) {
+    if (cancellation.get()) {
+      return;
+    }
+    statistics.countNode();
     calculateChildren(node);
     if (depth != ALGORITHM_DEPTH) {
       depth++;
@@ -57,6 +388,42 @@ public class MiniMaxAlgorithm implements StrategyEvaluation {
     }
   }
 
+  /**
+   * Find the node of the given game among the grandchildren of the root of the previous tree.
+   *
+   * @param chess the game whose position is looked for.
+   * @return the node of the position, or null if the previous tree does not contain it.
+   */
+  private Node findGrandchild(Chess chess) {
+    long key = chess.getPositionKey();
+    for (Node child : algorithmTree.getRoot().getChildren()) {
+      for (Node grandchild : child.getChildren()) {
+        if (grandchild.getChessStateOfNode().getPositionKey() == key) {
+          return grandchild;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Build the levels of a kept subtree that the previous tree did not contain. The previous tree
+   * calculated the children of the first levels of the subtree already; below them, the tree is
+   * built as if it had been built from scratch.
+   *
+   * @param node the node of the subtree that is inspected.
+   * @param depth the level of the node within the subtree.
+   */
+  private void completeTree(Node node, int depth) {
+    if (depth == ALGORITHM_DEPTH + 1 - PLIES_BETWEEN_SEARCHES) {
+      buildTree(node, depth);
+    } else {
+      for (Node child : node.getChildren()) {
+        completeTree(child, depth + 1);
+      }
+    }
+  }
+
   /**
    * Execute the whole miniMax algorithm by creating the corresponding tree and finding the best
    * value among the paths of the tree.
@@ -64,8 +431,505 @@ public class MiniMaxAlgorithm implements StrategyEvaluation {
    * @param chess the chess game that serves as starting point of the calculations.
    */
   void executeMinimax(Chess chess) {
-    buildTree(chess);
+    bestMoveFrom = null;
+    bestMoveTo = null;
+    cancellation.set(Thread.currentThread().isInterrupted());
+    statistics = new SearchStatistics();
+    EvaluationCache cache = evaluationCache;
+    PawnStructureCache whiteStructure = whitePawnStructure;
+    PawnStructureCache blackStructure = blackPawnStructure;
+    long cacheHits = cache.getHits();
+    long cacheMisses = cache.getMisses();
+    long structureHits = whiteStructure.getHits() + blackStructure.getHits();
+    long structureMisses = whiteStructure.getMisses() + blackStructure.getMisses();
+    if (searchMode != SearchMode.LEGACY) {
+      legacyTreeReusable = false;
+    }
+    principalVariation = new int[0];
+    if (finishPondering(chess)) {
+      statistics.countPonderHit();
+    } else if (searchMode == SearchMode.ALPHA_BETA) {
+      executeAlphaBeta(chess);
+    } else if (searchMode == SearchMode.DEPTH_FIRST
+        || searchMode == SearchMode.PRINCIPAL_VARIATION
+        || searchMode == SearchMode.SELECTIVE) {
+      executeDepthFirst(chess);
+    } else if (searchMode == SearchMode.LAZY_SMP) {
+      executeLazySmp(chess);
+    } else if (searchMode == SearchMode.ROOT_SPLIT) {
+      executeRootSplit(chess);
+    } else if (searchMode == SearchMode.MONTE_CARLO) {
+      executeMonteCarlo(chess);
+    } else {
+      executeLegacy(chess);
+    }
+    statistics.countEvaluationCacheLookups(
+        cache.getHits() - cacheHits, cache.getMisses() - cacheMisses);
+    statistics.countPawnStructureCacheLookups(
+        whiteStructure.getHits() + blackStructure.getHits() - structureHits,
+        whiteStructure.getMisses() + blackStructure.getMisses() - structureMisses);
+    if (cancellation.get()) {
+      bestMoveFrom = null;
+      bestMoveTo = null;
+      legacyTreeReusable = false;
+      principalVariation = new int[0];
+    } else if (progressListener != null) {
+      int bestMove = bestMoveTo == null ? Move.NONE : Move.of(bestMoveFrom, bestMoveTo);
+      progressListener.accept(
+          new SearchProgress(
+              statistics.getDepth(),
+              statistics.getNodes(),
+              statistics.getElapsedMillis(),
+              bestMove,
+              true));
+    }
+  }
+
+  /**
+   * Search the best move with the legacy engine: the complete tree is built first and then
+   * evaluated. If the tree of the previous search contains the current position two moves below
+   * its root, the subtree of that position is kept, and only its missing levels are built.
+   *
+   * @param chess the chess game that serves as starting point of the calculations.
+   */
+  private void executeLegacy(Chess chess) {
+    Node reusableRoot = legacyTreeReusable && searchReuse ? findGrandchild(chess) : null;
+    if (reusableRoot == null) {
+      buildTree(chess);
+    } else {
+      algorithmTree = new Tree();
+      algorithmTree.setRoot(reusableRoot);
+      completeTree(reusableRoot, 0);
+    }
+    if (cancellation.get()) {
+      return;
+    }
+    legacyTreeReusable = true;
     findBestEvaluation(this.algorithmTree.getRoot(), 0);
+    for (Node child : algorithmTree.getRoot().getChildren()) {
+      if (child.getEvaluationValue() == algorithmTree.getRoot().getEvaluationValue()) {
+        bestMoveFrom = child.getMovedFrom();
+        bestMoveTo = child.getMovedTo();
+        break;
+      }
+    }
+  }
+
+  /**
+   * Search the best move with a minimax search that uses alpha-beta pruning. In contrast to the
+   * legacy engine, the tree is never built completely: the children of a node are calculated right
+   * before they are searched and dropped again afterwards, and branches that cannot change the
+   * result are skipped. Only the leaves of the tree are evaluated, so the chosen move is the move
+   * that a plain minimax search of ALGORITHM_DEPTH levels would choose.
+   *
+   * @param chess the chess game that serves as starting point of the calculations.
+   */
+  private void executeAlphaBeta(Chess chess) {
+    algorithmTree = new Tree();
+    Node root = new Node(new Chess(chess), null, null, true);
+    algorithmTree.setRoot(root);
+    calculateChildren(root);
+    double alpha = Double.NEGATIVE_INFINITY;
+    for (Node child : root.getChildren()) {
+      double value = searchChild(root, child, 1, alpha, Double.POSITIVE_INFINITY);
+      child.setEvaluationValue(value);
+      if (value > alpha) {
+        alpha = value;
+        bestMoveFrom = child.getMovedFrom();
+        bestMoveTo = child.getMovedTo();
+      }
+      if (cancellation.get()) {
+        break;
+      }
+    }
+    root.setEvaluationValue(alpha);
+  }
+
+  /**
+   * Search the best move with a depth-first alpha-beta search that never creates any nodes. The
+   * search computes the same values as {@link #executeAlphaBeta(Chess)}, but instead of a copy of
+   * the game for every position it uses one copy that is changed and restored move by move. In the
+   * principal variation mode, the search tests most moves with a null window only and starts each
+   * iteration with an aspiration window. The selective mode additionally reduces and prunes
+   * unpromising moves as far as enabled.
+   *
+   * @param chess the chess game that serves as starting point of the calculations.
+   */
+  private void executeDepthFirst(Chess chess) {
+    algorithmTree = null;
+    DepthFirstSearch search =
+        createDepthFirstSearch(prepareTranspositionTable(), prepareMoveOrdering());
+    search.setProgressListener(progressListener, PROGRESS_INTERVAL_MILLIS);
+    if (nodeBudget > 0) {
+      search.setNodeBudget(nodeBudget);
+      search.search(chess, DepthFirstSearch.MAX_PLY, 0);
+    } else {
+      search.search(chess, getMaximumDepth(), timeBudgetMillis);
+    }
+    statistics = search.getStatistics();
+    principalVariation = search.getPrincipalVariation();
+    setBestMove(search.getBestMove());
+  }
+
+  /**
+   * Create a depth-first search that is configured for the current search mode.
+   *
+   * @param table the transposition table of the search.
+   * @param ordering the move ordering of the search.
+   * @return the new search.
+   */
+  private DepthFirstSearch createDepthFirstSearch(
+      TranspositionTable table, MoveOrdering ordering) {
+    DepthFirstSearch search = new DepthFirstSearch(this, table, ordering);
+    search.setCancellation(cancellation);
+    boolean selective = searchMode == SearchMode.SELECTIVE;
+    search.setPrincipalVariationSearch(
+        searchMode == SearchMode.PRINCIPAL_VARIATION || selective);
+    search.setLateMoveReductions(selective && lateMoveReductions);
+    search.setFutilityPruning(selective && futilityPruning);
+    return search;
+  }
+
+  /**
+   * Start a background search of the position the opponent most likely moves to, if pondering is
+   * switched on and the last move was found by a depth-first engine. The reply of the opponent is
+   * predicted by the second move of the principal variation of the last search. The background
+   * search is limited by the fixed search depth, or, with a time budget, by MAX_PONDER_MILLIS.
+   *
+   * <p>Starting, stopping and finishing the background search are guarded by one lock, as they
+   * are called from the thread of the AI as well as from the GUI. No background search is started
+   * once the search has been cancelled, so a game that is reset while the AI moves does not leave
+   * a background search behind.
+   *
+   * @param chess the game after the move of the AI, it is not changed.
+   */
+  void startPondering(Chess chess) {
+    synchronized (ponderLock) {
+      stopPondering();
+      if (!cancellation.get()) {
+        startPonderSearch(chess);
+      }
+    }
+  }
+
+  /**
+   * Start the background search of the predicted position. The caller holds the ponder lock and
+   * has stopped the previous background search.
+   *
+   * @param chess the game after the move of the AI, it is not changed.
+   */
+  private void startPonderSearch(Chess chess) {
+    if (!pondering
+        || !searchMode.canPonder()
+        || principalVariation.length < 2
+        || chess.getState().getCurrentPhase() != Phase.RUNNING) {
+      return;
+    }
+    int predictedReply = principalVariation[1];
+    Chess predicted = new Chess(chess);
+    int[] moves = new int[MAX_MOVES];
+    int count = predicted.generateMoves(moves);
+    boolean legal = false;
+    for (int i = 0; i < count; i++) {
+      legal |= moves[i] == predictedReply;
+    }
+    if (!legal) {
+      return;
+    }
+    predicted.makeMove(predictedReply);
+    if (predicted.getState().getCurrentPhase() != Phase.RUNNING) {
+      return;
+    }
+    DepthFirstSearch search =
+        createDepthFirstSearch(prepareTranspositionTable(), prepareMoveOrdering());
+    moveOrderingPrepared = true;
+    int maxDepth = getMaximumDepth();
+    long budget = timeBudgetMillis > 0 ? MAX_PONDER_MILLIS : 0;
+    ponderSearch = search;
+    ponderKey = predicted.getPositionKey();
+    ponderStart = System.nanoTime();
+    ponderThread = new Thread(() -> search.search(predicted, maxDepth, budget));
+    ponderThread.setDaemon(true);
+    ponderThread.start();
+  }
+
+  /**
+   * Stop the background search of the predicted position, if there is one, and wait until it has
+   * finished. Its result is dropped.
+   */
+  public void stopPondering() {
+    synchronized (ponderLock) {
+      if (ponderThread != null) {
+        ponderSearch.stop();
+        join(ponderThread, 0);
+        ponderThread = null;
+        ponderSearch = null;
+      }
+    }
+  }
+
+  /**
+   * End the background search. If it searched the given position, it may continue until the time
+   * budget, counted from the start of the background search, is used up, and its move is taken.
+   *
+   * @param chess the game the AI has to move in.
+   * @return true if the move was taken from the background search, false if the position has to be
+   *     searched as usual.
+   */
+  private boolean finishPondering(Chess chess) {
+    DepthFirstSearch search;
+    synchronized (ponderLock) {
+      if (ponderThread == null || !searchMode.canPonder() || chess.getPositionKey() != ponderKey) {
+        stopPondering();
+        return false;
+      }
+      if (timeBudgetMillis == 0) {
+        join(ponderThread, 0);
+      } else {
+        long elapsedMillis = (System.nanoTime() - ponderStart) / NANOS_PER_MILLI;
+        if (elapsedMillis < timeBudgetMillis) {
+          join(ponderThread, timeBudgetMillis - elapsedMillis);
+        }
+      }
+      search = ponderSearch;
+      stopPondering();
+    }
+    if (search.getBestMove() == Move.NONE) {
+      return false;
+    }
+    moveOrderingPrepared = false;
+    algorithmTree = null;
+    statistics = search.getStatistics();
+    principalVariation = search.getPrincipalVariation();
+    setBestMove(search.getBestMove());
+    return true;
+  }
+
+  /**
+   * Wait for a thread to finish.
+   *
+   * @param thread the thread to wait for.
+   * @param millis the longest time to wait in milliseconds, or 0 to wait until it has finished.
+   */
+  private static void join(Thread thread, long millis) {
+    try {
+      thread.join(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Search the best move with several depth-first searches in parallel (Lazy SMP). All threads
+   * search the same position and share one transposition table, so each thread profits from the
+   * positions the others have already searched. The helper threads start their iterative deepening
+   * alternately one move deeper than the main thread, so that they run ahead of it and fill the
+   * table with results it needs next. The move of the main thread is played; as soon as it is
+   * found, the helpers are stopped. A node budget limits the main thread only.
+   *
+   * @param chess the chess game that serves as starting point of the calculations.
+   */
+  private void executeLazySmp(Chess chess) {
+    algorithmTree = null;
+    TranspositionTable table = prepareTranspositionTable();
+    int maxDepth = nodeBudget > 0 ? DepthFirstSearch.MAX_PLY : getMaximumDepth();
+    DepthFirstSearch mainSearch = new DepthFirstSearch(this, table, prepareMoveOrdering());
+    mainSearch.setCancellation(cancellation);
+    mainSearch.setProgressListener(progressListener, PROGRESS_INTERVAL_MILLIS);
+    DepthFirstSearch[] helpers = new DepthFirstSearch[threadCount - 1];
+    Thread[] helperThreads = new Thread[helpers.length];
+    for (int i = 0; i < helpers.length; i++) {
+      DepthFirstSearch helper = new DepthFirstSearch(this, table);
+      helper.setCancellation(cancellation);
+      int firstDepth = 1 + (i + 1) % 2;
+      helpers[i] = helper;
+      helperThreads[i] = new Thread(() -> helper.search(chess, maxDepth, 0, firstDepth));
+      helperThreads[i].setDaemon(true);
+      helperThreads[i].start();
+    }
+    if (nodeBudget > 0) {
+      mainSearch.setNodeBudget(nodeBudget);
+      mainSearch.search(chess, maxDepth, 0);
+    } else {
+      mainSearch.search(chess, maxDepth, timeBudgetMillis);
+    }
+    statistics = new SearchStatistics();
+    statistics.add(mainSearch.getStatistics());
+    for (int i = 0; i < helpers.length; i++) {
+      helpers[i].stop();
+      try {
+        helperThreads[i].join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      statistics.add(helpers[i].getStatistics());
+    }
+    statistics.setDepth(mainSearch.getCompletedDepth());
+    setBestMove(mainSearch.getBestMove());
+  }
+
+  /**
+   * Search the best move by distributing the children of the starting position over the workers
+   * of a fork/join pool. Each worker searches its subtrees depth-first on its own copy of the game,
+   * and the workers share the best value found so far, so that later subtrees are searched with a
+   * narrower window.
+   *
+   * @param chess the chess game that serves as starting point of the calculations.
+   */
+  private void executeRootSplit(Chess chess) {
+    algorithmTree = null;
+    Node root = new Node(new Chess(chess), null, null, true);
+    calculateChildren(root);
+    RootSplitSearch search = new RootSplitSearch(this, getForkJoinPool());
+    search.setCancellation(cancellation);
+    search.search(root, getMaximumDepth(), timeBudgetMillis);
+    statistics = search.getStatistics();
+    setBestMove(search.getBestMove());
+  }
+
+  /**
+   * Search the best move with a Monte Carlo tree search, which plays random games in parallel
+   * instead of evaluating positions. The tree of the search is kept for the next move. Without a
+   * time budget, the search plays a fixed number of games.
+   *
+   * @param chess the chess game that serves as starting point of the calculations.
+   */
+  private void executeMonteCarlo(Chess chess) {
+    algorithmTree = null;
+    monteCarloTreeSearch.setCancellation(cancellation);
+    monteCarloTreeSearch.search(
+        chess,
+        getForkJoinPool(),
+        threadCount,
+        timeBudgetMillis,
+        MonteCarloTreeSearch.DEFAULT_PLAYOUTS);
+    statistics = monteCarloTreeSearch.getStatistics();
+    setBestMove(monteCarloTreeSearch.getBestMove());
+  }
+
+  /**
+   * Create the fork/join pool of the parallel engines if necessary.
+   *
+   * @return the pool with one worker per thread.
+   */
+  private ForkJoinPool getForkJoinPool() {
+    if (forkJoinPool == null) {
+      forkJoinPool = new ForkJoinPool(threadCount);
+    }
+    return forkJoinPool;
+  }
+
+  /**
+   * Create the transposition table if necessary and prepare it for a new search. Unless the
+   * results of the previous search are reused, the table is cleared.
+   *
+   * @return the table to be used by the depth-first searches.
+   */
+  private TranspositionTable prepareTranspositionTable() {
+    if (transpositionTable == null) {
+      transpositionTable = new TranspositionTable(tableSizeInMegabytes);
+    }
+    if (!searchReuse) {
+      transpositionTable.clear();
+    }
+    transpositionTable.newSearch();
+    return transpositionTable;
+  }
+
+  /**
+   * Prepare the move ordering of the main depth-first search for a new search. If the results of
+   * the previous search are reused, the ordering is moved on by the two moves that were made since
+   * then, otherwise a fresh ordering is created. If a background search has already prepared the
+   * ordering for the current position, it is taken as it is.
+   *
+   * @return the move ordering to be used by the main depth-first search.
+   */
+  private MoveOrdering prepareMoveOrdering() {
+    if (moveOrderingPrepared) {
+      moveOrderingPrepared = false;
+    } else if (searchReuse) {
+      moveOrdering.newSearch(PLIES_BETWEEN_SEARCHES);
+    } else {
+      moveOrdering = new MoveOrdering(DepthFirstSearch.MAX_PLY);
+    }
+    return moveOrdering;
+  }
+
+  /**
+   * Getter: returns the depth the depth-first searches deepen to: the search depth for a search of
+   * fixed depth, or as deep as possible if the search is limited by a time budget.
+   *
+   * @return the maximum depth of the iterative deepening.
+   */
+  private int getMaximumDepth() {
+    return timeBudgetMillis > 0 ? DepthFirstSearch.MAX_PLY : searchDepth;
+  }
+
+  /**
+   * Remember the given move as the best move of the search.
+   *
+   * @param move the best move, or {@link Move#NONE} if no move was found.
+   */
+  private void setBestMove(int move) {
+    if (move != Move.NONE) {
+      bestMoveFrom = Move.fromCell(move);
+      bestMoveTo = Move.toCell(move);
+    }
+  }
+
+  /**
+   * Computes the negamax value of a node: the value is seen from the perspective of the player who
+   * is about to move in the node, so that each level can maximize. Branches are cut off as soon as
+   * their value lies outside of the window between alpha and beta.
+   *
+   * @param node the node that is currently inspected.
+   * @param depth the level of the node within the tree.
+   * @param alpha the value the player to move is already guaranteed.
+   * @param beta the value the opponent is already guaranteed.
+   * @return the value of the node for the player to move.
+   */
+  private double alphaBeta(Node node, int depth, double alpha, double beta) {
+    Chess chess = node.getChessStateOfNode();
+    if (depth == ALGORITHM_DEPTH || chess.getState().getCurrentPhase() != Phase.RUNNING) {
+      return DepthFirstSearch.rateForPlayerToMove(this, node, depth);
+    }
+    calculateChildren(node);
+    double bestValue = Double.NEGATIVE_INFINITY;
+    for (Node child : node.getChildren()) {
+      double value = searchChild(node, child, depth + 1, alpha, beta);
+      if (value > bestValue) {
+        bestValue = value;
+      }
+      if (value > alpha) {
+        alpha = value;
+      }
+      if (alpha >= beta || cancellation.get()) {
+        break;
+      }
+    }
+    node.getChildren().clear();
+    return bestValue;
+  }
+
+  /**
+   * Computes the value of a child node from the perspective of the player to move in its parent.
+   * Usually the players take turns and the value of the child has to be negated. If the opponent
+   * has to miss a turn or the game ended with the move, the same player is still the current player
+   * of the child and its value can be taken over directly.
+   *
+   * @param parent the node the move was made in.
+   * @param child the node that resulted from the move.
+   * @param depth the level of the child within the tree.
+   * @param alpha the value the player to move in the parent is already guaranteed.
+   * @param beta the value the opponent is already guaranteed.
+   * @return the value of the child for the player to move in the parent.
+   */
+  private double searchChild(Node parent, Node child, int depth, double alpha, double beta) {
+    Player parentPlayer = parent.getChessStateOfNode().getState().getCurrentPlayer();
+    if (child.getChessStateOfNode().getState().getCurrentPlayer() == parentPlayer) {
+      return alphaBeta(child, depth, alpha, beta);
+    }
+    return -alphaBeta(child, depth, -beta, -alpha);
   }
 
   /**
@@ -115,39 +979,92 @@ public class MiniMaxAlgorithm implements StrategyEvaluation {
   }
 
   /**
-   * Calculates all the children nodes of a node and adds them to the node's list of children.
+   * Calculates all the children nodes of a node and adds them to the node's list of children. The
+   * moves of the current player are generated in one pass over the player's pawns, and each move
+   * becomes exactly one child. The children are ordered by their target cell, like the cells of
+   * {@link #findAllCellsThatCouldBeMovedTo(Node)}.
    *
    * @param root the node that is inspected.
    */
   private void calculateChildren(Node root) {
-    if (root.getChessStateOfNode().getState().getCurrentPhase() == Phase.RUNNING) {
-      List<Cell> allPossibleCells = findAllCellsThatCouldBeMovedTo(root);
-      // System.out.println("List of all cells that could be moved to: " + allPossibleCells);
-      allPossibleCells.forEach(
-          cell -> {
-            Map<Cell, Player> allCellsOccupied =
-                root.getChessStateOfNode().getState().getField().getCellsOccupiedWithPawns();
-            for (Map.Entry<Cell, Player> entry : allCellsOccupied.entrySet()) {
+    Chess chess = root.getChessStateOfNode();
+    if (chess.getState().getCurrentPhase() == Phase.RUNNING) {
+      int[] moves = new int[MAX_MOVES];
+      int count = chess.generateMoves(moves);
+      for (int i = 0; i < count; i++) {
+        Chess newChess = new Chess(chess);
+        newChess.makeMove(moves[i]);
+        root.addChildren(
+            new Node(newChess, Move.fromCell(moves[i]), Move.toCell(moves[i]), !root.isMax()));
+      }
+      assert hasSameMoves(root.getChildren(), calculateChildrenByTargets(root))
+          : "The children of " + Arrays.toString(Arrays.copyOf(moves, count)) + " differ";
+    }
+  }
+
+  /**
+   * Calculates the children of a node the way the first version of the algorithm did: for every
+   * cell that could be moved to, all pawns are asked whether they can reach it. A move is listed
+   * once for every pawn of the current player that can reach the same cell. The method is only
+   * used to check {@link #calculateChildren(Node)} when assertions are enabled.
+   *
+   * @param root the node that is inspected.
+   * @return the children of the node, the node itself is not changed.
+   */
+  private List<Node> calculateChildrenByTargets(Node root) {
+    List<Node> children = new ArrayList<>();
+    List<Cell> allPossibleCells = findAllCellsThatCouldBeMovedTo(root);
+    Map<Cell, Player> allCellsOccupied =
+        root.getChessStateOfNode().getState().getField().getCellsOccupiedWithPawns();
+    allPossibleCells.forEach(
+        cell -> {
+          for (Map.Entry<Cell, Player> entry : allCellsOccupied.entrySet()) {
+            if (root.getChessStateOfNode().getPossibleMovesForPawn(entry.getKey()).contains(cell)) {
+              Cell startMove = entry.getKey();
+              Chess newChess = new Chess(root.getChessStateOfNode());
+              newChess.move(startMove, cell);
+              Node newNode = new Node(newChess, startMove, cell, !root.isMax());
               if (root.getChessStateOfNode()
-                  .getPossibleMovesForPawn(entry.getKey())
-                  .contains(cell)) {
-                Cell startMove = entry.getKey();
-                Chess newChess = new Chess(root.getChessStateOfNode());
-                newChess.move(startMove, cell);
-                Node newNode = new Node(newChess, startMove, cell, !root.isMax());
-                if (root.getChessStateOfNode()
-                        .getState()
-                        .getField()
-                        .get(newNode.getMovedFrom())
-                        .get()
-                        .getPlayer()
-                    == root.getChessStateOfNode().getState().getCurrentPlayer()) {
-                  root.addChildren(newNode);
-                }
+                      .getState()
+                      .getField()
+                      .get(newNode.getMovedFrom())
+                      .get()
+                      .getPlayer()
+                  == root.getChessStateOfNode().getState().getCurrentPlayer()) {
+                children.add(newNode);
               }
             }
-          });
+          }
+        });
+    return children;
+  }
+
+  /**
+   * Check whether two lists of children contain the same moves leading to the same positions,
+   * ignoring their order and how often each move is listed.
+   *
+   * @param children the children to check.
+   * @param expected the children they are compared with.
+   * @return true if both lists contain the same moves, false otherwise.
+   */
+  private static boolean hasSameMoves(List<Node> children, List<Node> expected) {
+    return movesOf(children).equals(movesOf(expected));
+  }
+
+  /**
+   * Collect the moves and resulting positions of a list of children.
+   *
+   * @param children the inspected children.
+   * @return the moves together with the keys of the positions they lead to.
+   */
+  private static Map<Integer, Long> movesOf(List<Node> children) {
+    Map<Integer, Long> moves = new HashMap<>();
+    for (Node child : children) {
+      moves.put(
+          Move.of(child.getMovedFrom(), child.getMovedTo()),
+          child.getChessStateOfNode().getPositionKey());
     }
+    return moves;
   }
 
   /**
@@ -160,238 +1077,95 @@ public class MiniMaxAlgorithm implements StrategyEvaluation {
    */
   private List<Cell> findAllCellsThatCouldBeMovedTo(Node root) {
     List<Cell> allPossibleCells = new ArrayList<>();
-    if (!root.getChessStateOfNode().getState().getField().getCellsOccupiedWithPawns().isEmpty()) {
-      for (Map.Entry<Cell, Player> entry :
-          root.getChessStateOfNode().getState().getField().getCellsOccupiedWithPawns().entrySet()) {
-        if (entry.getValue() == root.getChessStateOfNode().getState().getCurrentPlayer()) {
-          allPossibleCells.addAll(
-              root.getChessStateOfNode().getPossibleMovesForPawn(entry.getKey()));
-        }
-      }
-      if (root.getChessStateOfNode().getState().getCurrentPlayer() == Player.WHITE) {
-        Collections.sort(allPossibleCells);
-      } else {
-        Collections.sort(allPossibleCells, Collections.reverseOrder());
-      }
+    Chess chess = root.getChessStateOfNode();
+    Player currentPlayer = chess.getState().getCurrentPlayer();
+    chess
+        .getState()
+        .getField()
+        .forEachPawn(
+            currentPlayer,
+            (column, row, player) ->
+                allPossibleCells.addAll(chess.getPossibleMovesForPawn(Cell.of(column, row))));
+    if (currentPlayer == Player.WHITE) {
+      Collections.sort(allPossibleCells);
+    } else {
+      Collections.sort(allPossibleCells, Collections.reverseOrder());
     }
     return allPossibleCells;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The sum of the terms that only depend on the pawns is looked up in the evaluation cache and
+   * only computed if the position is not found there.
+   */
   @Override
   public double evaluateState(Node node, int depth) {
-    double valuePawnCountOnField = evaluatePawnCountOnField(node);
-    double valueDistanceToOppositeLine = evaluateDistanceToOppositeLine(node);
-    double valueRiskOfCapture = evaluateRiskOfCapture(node);
-    double valueIsolationOfPawns = evaluateIsolationOfPawns(node);
-    double valueClosenessToWinning = evaluateClosenessToWinning(node, depth);
-    return valuePawnCountOnField
-        + valueDistanceToOppositeLine
-        + valueRiskOfCapture
-        + valueIsolationOfPawns
-        + valueClosenessToWinning;
+    return evaluationCache.evaluateState(node, depth);
   }
 
   @Override
   public double evaluatePawnCountOnField(Node node) {
-    Map<Cell, Player> mapOfAllPawns =
-        node.getChessStateOfNode().getState().getField().getCellsOccupiedWithPawns();
-    double humanPawnCount = 0;
-    double machinePawnCount = 0;
-    for (Map.Entry<Cell, Player> entry : mapOfAllPawns.entrySet()) {
-      if (entry.getValue() == Player.WHITE) {
-        humanPawnCount++;
-      } else {
-        machinePawnCount++;
-      }
-    }
+    BitBoard board = node.getChessStateOfNode().getState().getField().getBitBoard();
+    double humanPawnCount = board.countPawns(Player.WHITE);
+    double machinePawnCount = board.countPawns(Player.BLACK);
     return machinePawnCount - (1.5 * humanPawnCount);
   }
 
   @Override
   public double evaluateDistanceToOppositeLine(Node node) {
-    Map<Cell, Player> mapOfAllPawns =
-        node.getChessStateOfNode().getState().getField().getCellsOccupiedWithPawns();
+    BitBoard board = node.getChessStateOfNode().getState().getField().getBitBoard();
+    long whitePawns = board.getPawns(Player.WHITE);
+    long blackPawns = board.getPawns(Player.BLACK);
     double humanDistanceCount = 0;
     double machineDistanceCount = 0;
     for (int row = FIRST_ROW; row <= LAST_ROW; row++) {
-      double countWhitePawns = 0;
-      double countBlackPawns = 0;
-      for (Map.Entry<Cell, Player> entry : mapOfAllPawns.entrySet()) {
-        if (entry.getKey().getRow() == row) {
-          if (entry.getValue() == Player.WHITE) {
-            countWhitePawns++;
-          } else {
-            countBlackPawns++;
-          }
-        }
-      }
+      double countWhitePawns = Long.bitCount(whitePawns & BitBoard.rowMask(row));
+      double countBlackPawns = Long.bitCount(blackPawns & BitBoard.rowMask(row));
       humanDistanceCount = humanDistanceCount + countWhitePawns * row;
       machineDistanceCount = machineDistanceCount + (countBlackPawns * (LAST_ROW - row));
     }
     return machineDistanceCount - 1.5 * humanDistanceCount;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The cells the pawns of each player attack are taken from the pawn structure cache of the
+   * player. A pawn is at risk if it stands on a cell the opponent attacks, but not on a cell its
+   * own pawns attack, because then it is covered.
+   */
   @Override
   public double evaluateRiskOfCapture(Node node) {
-    Map<Cell, Player> mapOfAllPawns =
-        node.getChessStateOfNode().getState().getField().getCellsOccupiedWithPawns();
-    double humanPawnsInRiskOfCapture = 0;
-    double machinePawnsInRiskOfCapture = 0;
-    for (Map.Entry<Cell, Player> entry : mapOfAllPawns.entrySet()) {
-      if (entry.getValue() == Player.WHITE && isPawnAtRiskOfCapture(entry, Player.WHITE, node)) {
-        humanPawnsInRiskOfCapture++;
-      } else if (entry.getValue() == Player.BLACK
-          && isPawnAtRiskOfCapture(entry, Player.BLACK, node)) {
-        machinePawnsInRiskOfCapture++;
-      }
-    }
+    BitBoard board = node.getChessStateOfNode().getState().getField().getBitBoard();
+    long whitePawns = board.getPawns(Player.WHITE);
+    long blackPawns = board.getPawns(Player.BLACK);
+    long attackedByWhite = whitePawnStructure.getAttacks(whitePawns);
+    long attackedByBlack = blackPawnStructure.getAttacks(blackPawns);
+    double humanPawnsInRiskOfCapture =
+        Long.bitCount(whitePawns & attackedByBlack & ~attackedByWhite);
+    double machinePawnsInRiskOfCapture =
+        Long.bitCount(blackPawns & attackedByWhite & ~attackedByBlack);
     return humanPawnsInRiskOfCapture - (1.5 * machinePawnsInRiskOfCapture);
   }
 
   /**
-   * Determines whether an inspected cell is occupied with the chosen pawn.
-   *
-   * @param node the node that is currently inspected
-   * @param entry an entry of a map that lists occupied cells and the player that the pawn on the
-   *     cell belongs to.
-   * @param horizontalPosition an in that represents the horizontal position on the field. -1 for
-   *     one step to the left, 1 for one step to the right. The values correspond to the numbering
-   *     of the columns, where a cell on the left has a lower column value than a cell on the right.
-   * @param verticalPosition an int that represents the vertical position on the field. -1 for down,
-   *     +1 for up. The values correspond to the numbering of the rows, where a cell within the
-   *     lower part of the field has a lower row value than a cell within the top part.
-   * @param inspectedPlayer the player of the pawn that is expected on the field.
-   * @return true if the cell is occupied with the expected pawn, false otherwise.
-   */
-  private boolean isCellOccupiedWithPawn(
-      Node node,
-      Map.Entry<Cell, Player> entry,
-      int horizontalPosition,
-      int verticalPosition,
-      Player inspectedPlayer) {
-    return node.getChessStateOfNode()
-            .getState()
-            .getField()
-            .isWithinBounds(
-                new Cell(
-                    entry.getKey().getColumn() - horizontalPosition,
-                    entry.getKey().getRow() + verticalPosition))
-        && node.getChessStateOfNode()
-            .getState()
-            .getField()
-            .get(
-                new Cell(
-                    entry.getKey().getColumn() - horizontalPosition,
-                    entry.getKey().getRow() + verticalPosition))
-            .isPresent()
-        && node.getChessStateOfNode()
-                .getState()
-                .getField()
-                .get(
-                    new Cell(
-                        entry.getKey().getColumn() - horizontalPosition,
-                        entry.getKey().getRow() + verticalPosition))
-                .get()
-                .getPlayer()
-            == inspectedPlayer;
-  }
-
-  /**
-   * Determines if the inspected pawn is at risk of being captured by a nearby pawn of the opponent.
-   *
-   * @param entry an entry of a map that lists occupied cells and the player that the pawn on the *
-   *     cell belongs to.
-   * @param playerOfInspectedPawn the player of the pawn that is on the inspected cell.
-   * @param node the node that is currently inspected
-   * @return true if there is at least one threatening pawn of the opponent nearby and no pawn that
-   *     is member of the own color to guard the pawn on the inspected cell, false otherwise.
-   */
-  private boolean isPawnAtRiskOfCapture(
-      Map.Entry<Cell, Player> entry, Player playerOfInspectedPawn, Node node) {
-    int moveDirection = node.getChessStateOfNode().determineMoveDirection(playerOfInspectedPawn);
-    boolean isLeftOccupiedWithOpponentsPawn =
-        isCellOccupiedWithPawn(
-            node,
-            entry,
-            -1,
-            moveDirection,
-            node.getChessStateOfNode().otherPlayer(playerOfInspectedPawn));
-    boolean isRightOccupiedWithOpponentsPawn =
-        isCellOccupiedWithPawn(
-            node,
-            entry,
-            1,
-            moveDirection,
-            node.getChessStateOfNode().otherPlayer(playerOfInspectedPawn));
-    boolean isPawnCoveredFromLeft =
-        isCellOccupiedWithPawn(node, entry, -1, -1 * moveDirection, playerOfInspectedPawn);
-    boolean isPawnCoveredFromRight =
-        isCellOccupiedWithPawn(node, entry, 1, -1 * moveDirection, playerOfInspectedPawn);
-    return (isLeftOccupiedWithOpponentsPawn || isRightOccupiedWithOpponentsPawn)
-        && !(isPawnCoveredFromLeft || isPawnCoveredFromRight);
-  }
-
+   * {@inheritDoc}
+   *
+   * <p>The number of isolated pawns of each player is taken from the pawn structure cache of the
+   * player.
+   */
   @Override
   public double evaluateIsolationOfPawns(Node node) {
-    Map<Cell, Player> mapOfAllPawns =
-        node.getChessStateOfNode().getState().getField().getCellsOccupiedWithPawns();
-    double humanPawnsIsolated = 0;
-    double machinePawnsIsolated = 0;
-    for (Map.Entry<Cell, Player> entry : mapOfAllPawns.entrySet()) {
-      if (entry.getValue() == Player.WHITE && isPawnIsolated(entry, node)) {
-        humanPawnsIsolated++;
-      } else if (entry.getValue() == Player.BLACK && isPawnIsolated(entry, node)) {
-        machinePawnsIsolated++;
-      }
-    }
+    BitBoard board = node.getChessStateOfNode().getState().getField().getBitBoard();
+    double humanPawnsIsolated =
+        whitePawnStructure.getIsolatedCount(board.getPawns(Player.WHITE));
+    double machinePawnsIsolated =
+        blackPawnStructure.getIsolatedCount(board.getPawns(Player.BLACK));
     return humanPawnsIsolated - (1.5 * machinePawnsIsolated);
   }
 
-  /**
-   * Determines whether an inspected pawn is surrounded by other pawns of its color or not.
-   *
-   * @param entry the entry of a map that holds all occupied cells and the players of the pawns.
-   * @param node the node that is currently inspected
-   * @return true if there is at least one pawn of the same color surrounding the inspected pawn,
-   *     false otherwise.
-   */
-  private boolean isPawnIsolated(Map.Entry<Cell, Player> entry, Node node) {
-    int oneStepToTheLeft = -1;
-    int oneStepToTheRight = 1;
-    int oneStepUp = 1;
-    int oneStepDown = -1;
-    Set<Cell> allCellsSurrounding = new HashSet<Cell>();
-    allCellsSurrounding.add(
-        new Cell(entry.getKey().getColumn() + oneStepToTheLeft, entry.getKey().getRow()));
-    allCellsSurrounding.add(
-        new Cell(
-            entry.getKey().getColumn() + oneStepToTheLeft, entry.getKey().getRow() + oneStepUp));
-    allCellsSurrounding.add(
-        new Cell(entry.getKey().getColumn(), entry.getKey().getRow() + oneStepUp));
-    allCellsSurrounding.add(
-        new Cell(
-            entry.getKey().getColumn() + oneStepToTheRight, entry.getKey().getRow() + oneStepUp));
-    allCellsSurrounding.add(
-        new Cell(entry.getKey().getColumn() + oneStepToTheRight, entry.getKey().getRow()));
-    allCellsSurrounding.add(
-        new Cell(
-            entry.getKey().getColumn() + oneStepToTheRight, entry.getKey().getRow() + oneStepDown));
-    allCellsSurrounding.add(
-        new Cell(entry.getKey().getColumn(), entry.getKey().getRow() + oneStepDown));
-    allCellsSurrounding.add(
-        new Cell(
-            entry.getKey().getColumn() + oneStepToTheLeft, entry.getKey().getRow() + oneStepDown));
-    for (Cell cell : allCellsSurrounding) {
-      if (node.getChessStateOfNode().getState().getField().isWithinBounds(cell)
-          && node.getChessStateOfNode().getState().getField().get(cell).isPresent()
-          && node.getChessStateOfNode().getState().getField().get(cell).get().getPlayer()
-              == entry.getValue()) {
-        return false;
-      }
-    }
-    return true;
-  }
-
   @Override
   public double evaluateClosenessToWinning(Node node, int lookAhead) {
     if (node.getChessStateOfNode().getState().getCurrentPhase() == Phase.FINISHED
@@ -29,6 +29,35 @@ public interface Model extends PropertyChangeListener {
    */
   MiniMaxAlgorithm getMiniMax();
 
+  /**
+   * Select the engine that the AI uses to determine its moves.
+   *
+   * @param mode the search mode that is used for all following moves of the AI
+   */
+  void setSearchMode(SearchMode mode);
+
+  /**
+   * Get the engine that the AI currently uses to determine its moves.
+   *
+   * @return the active search mode
+   */
+  SearchMode getSearchMode();
+
+  /**
+   * Select whether the AI thinks about the predicted reply of the human player while the human
+   * player thinks. Pondering is switched off by default.
+   *
+   * @param pondering true to let the AI think on the time of the human player, false otherwise
+   */
+  void setPondering(boolean pondering);
+
+  /**
+   * Get whether the AI thinks on the time of the human player.
+   *
+   * @return true if pondering is switched on, false otherwise
+   */
+  boolean isPondering();
+
   /**
    * Set the game mode of the current game.
    *
@@ -92,6 +121,7 @@ public interface Model extends PropertyChangeListener {
 
   String NEW_MOVE = "New Move";
   String NETWORK_UPDATE = "Network Update";
+  String KI_PROGRESS = "KI Progress";
 
   /**
    * Add a {@link PropertyChangeListener} to the chess.model that will be notified about the changes made
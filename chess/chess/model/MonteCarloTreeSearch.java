@@ -0,0 +1,413 @@
+package chess.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class MonteCarloTreeSearch finds a move without any evaluation function. Instead of rating
+ * positions, it plays many games from the starting position to the end with random moves
+ * ("playouts") and counts how often each move led to a win. The moves are tried in a tree that
+ * grows by one position per playout. Within the tree, the moves are chosen by the UCT formula,
+ * which balances moves that have won often against moves that have been tried rarely. Below the
+ * tree, the playouts choose random moves, except that a move to the finish line is always taken,
+ * because it wins the game at once.
+ *
+ * <p>The playouts run in parallel on the workers of a {@link ForkJoinPool} and share one tree.
+ * When a worker walks down the tree, it counts a visit of every position on its way before the
+ * playout is finished, as if the playout had been lost ("virtual loss"). The other workers
+ * therefore prefer other moves in the meantime, instead of all following the same line. When the
+ * playout is finished, its result is added to the same positions.
+ *
+ * <p>The tree is kept after a move. When the next search starts in a position the tree already
+ * contains, usually the reply of the opponent to the move that was played, the subtree of that
+ * position becomes the new tree and all of its playouts count from the start.
+ *
+ * <p>The workers check a cancellation flag before every playout, so a search can be stopped from
+ * another thread. The tree stays valid, since only finished playouts are added to it.
+ */
+class MonteCarloTreeSearch {
+
+  static final int DEFAULT_PLAYOUTS = 20000;
+  private static final double EXPLORATION = Math.sqrt(2);
+  private static final int MAX_MOVES = 32;
+  private static final int MAX_TREE_DEPTH = 128;
+  private static final int MAX_PLAYOUT_MOVES = 256;
+  private static final int MAX_TREE_NODES = 1 << 20;
+  private static final int VISITS_BEFORE_EXPANSION = 2;
+  private static final int WIN_POINTS = 2;
+  private static final int DRAW_POINTS = 1;
+  private static final long NANOS_PER_MILLI = 1_000_000L;
+
+  private final AtomicInteger treeSize = new AtomicInteger();
+  private final AtomicInteger remainingPlayouts = new AtomicInteger();
+  private SearchStatistics statistics = new SearchStatistics();
+  private AtomicBoolean cancellation = new AtomicBoolean();
+  private TreeNode root;
+  private long seed;
+
+  /**
+   * Let the workers stop as soon as the given flag is set.
+   *
+   * @param cancellation the flag that cancels the search when it is set.
+   */
+  void setCancellation(AtomicBoolean cancellation) {
+    this.cancellation = cancellation;
+  }
+
+  /**
+   * Search the given game with parallel playouts until either the time budget is used up or, if
+   * there is no budget, the given number of playouts has been played.
+   *
+   * @param chess the game that serves as starting point, it is not changed by the search.
+   * @param pool the pool whose workers run the playouts.
+   * @param threadCount the number of playouts that run at the same time.
+   * @param timeBudgetMillis the time the search may take in milliseconds, or 0 for no limit.
+   * @param playouts the number of playouts if there is no time limit.
+   */
+  void search(
+      Chess chess, ForkJoinPool pool, int threadCount, long timeBudgetMillis, int playouts) {
+    long start = System.nanoTime();
+    long deadline = start + timeBudgetMillis * NANOS_PER_MILLI;
+    statistics = new SearchStatistics();
+    long key = chess.getPositionKey();
+    root = findSubtree(key);
+    if (root == null) {
+      root = new TreeNode(Move.NONE, key, null);
+      treeSize.set(1);
+    } else {
+      treeSize.set(root.countNodes());
+    }
+    remainingPlayouts.set(timeBudgetMillis > 0 ? Integer.MAX_VALUE : playouts);
+    List<PlayoutWorker> workers = new ArrayList<>(threadCount);
+    for (int i = 0; i < Math.max(1, threadCount); i++) {
+      workers.add(new PlayoutWorker(chess, timeBudgetMillis > 0, deadline, seed++));
+    }
+    for (int i = 1; i < workers.size(); i++) {
+      pool.execute(workers.get(i));
+    }
+    workers.get(0).invoke();
+    for (PlayoutWorker worker : workers) {
+      statistics.add(worker.join());
+    }
+    statistics.addElapsedNanos(System.nanoTime() - start);
+  }
+
+  /**
+   * Look for the position with the given key among the current root of the tree, its children and
+   * its grandchildren. These are the positions that can be reached by the move of the AI and the
+   * reply of the opponent.
+   *
+   * @param key the key of the position to look for, see {@link Chess#getPositionKey()}.
+   * @return the node of the position, or null if the tree does not contain the position.
+   */
+  private TreeNode findSubtree(long key) {
+    if (root == null || root.key == key) {
+      return root;
+    }
+    TreeNode[] children = root.children;
+    if (children == null) {
+      return null;
+    }
+    for (TreeNode child : children) {
+      if (child.key == key) {
+        return child;
+      }
+      TreeNode[] grandchildren = child.children;
+      if (grandchildren != null) {
+        for (TreeNode grandchild : grandchildren) {
+          if (grandchild.key == key) {
+            return grandchild;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Getter: returns the move of the starting position that was tried in the most playouts. The
+   * number of playouts is more reliable than the rate of wins, because a move is only tried often
+   * if it keeps winning.
+   *
+   * @return the best move, or {@link Move#NONE} if the current player could not move.
+   */
+  int getBestMove() {
+    TreeNode[] children = root == null ? null : root.children;
+    if (children == null) {
+      return Move.NONE;
+    }
+    TreeNode best = null;
+    for (TreeNode child : children) {
+      if (best == null || child.visits > best.visits) {
+        best = child;
+      }
+    }
+    return best == null ? Move.NONE : best.move;
+  }
+
+  /**
+   * Getter: returns the statistics of the last search. Every playout counts as one node, and the
+   * depth is the deepest level of the tree a playout started from.
+   *
+   * @return the collected statistics.
+   */
+  SearchStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Choose a move for a playout: a move to the finish line if there is one, a random move
+   * otherwise.
+   *
+   * @param moves the moves of the position.
+   * @param count the number of moves.
+   * @param random the source of random numbers of the worker.
+   * @return the chosen move.
+   */
+  private static int choosePlayoutMove(int[] moves, int count, SplittableRandom random) {
+    for (int i = 0; i < count; i++) {
+      if (MoveOrdering.isFinishLine(Move.to(moves[i]))) {
+        return moves[i];
+      }
+    }
+    return moves[random.nextInt(count)];
+  }
+
+  /** A position within the tree, together with the results of the playouts that passed it. */
+  private static final class TreeNode {
+
+    private final int move;
+    private final long key;
+    private final Player mover;
+    private volatile int visits;
+    private volatile int points;
+    private volatile TreeNode[] children;
+
+    /**
+     * Construct a node that has not been visited yet.
+     *
+     * @param move the move that leads to the position.
+     * @param key the key of the position.
+     * @param mover the player who made the move, or null for the root.
+     */
+    TreeNode(int move, long key, Player mover) {
+      this.move = move;
+      this.key = key;
+      this.mover = mover;
+    }
+
+    /** Count a visit whose playout has not finished yet. Until then, it counts as a loss. */
+    synchronized void addVirtualLoss() {
+      visits++;
+    }
+
+    /**
+     * Add the result of a finished playout to the visit that was counted by {@link
+     * #addVirtualLoss()}.
+     *
+     * @param winner the winner of the playout, or null for a draw.
+     */
+    synchronized void addResult(Player winner) {
+      if (winner == null) {
+        points += DRAW_POINTS;
+      } else if (winner == mover) {
+        points += WIN_POINTS;
+      }
+    }
+
+    /**
+     * Create the children of the node, unless another worker has already done so.
+     *
+     * @param position the game in the position of the node, it is restored afterwards.
+     * @param moves a buffer for the moves of the position.
+     * @return the number of nodes that were created.
+     */
+    synchronized int expand(Chess position, int[] moves) {
+      if (children != null) {
+        return 0;
+      }
+      Player player = position.getState().getCurrentPlayer();
+      int count = position.generateMoves(moves);
+      TreeNode[] newChildren = new TreeNode[count];
+      for (int i = 0; i < count; i++) {
+        position.makeMove(moves[i]);
+        newChildren[i] = new TreeNode(moves[i], position.getPositionKey(), player);
+        position.unmakeMove();
+      }
+      children = newChildren;
+      return count;
+    }
+
+    /**
+     * Choose the child with the highest UCT value: the rate of points it won plus a bonus that is
+     * the higher, the less often the child was visited compared to the node. Children that have
+     * not been visited are chosen first.
+     *
+     * @return the chosen child, or null if the node has no children.
+     */
+    TreeNode select() {
+      TreeNode[] candidates = children;
+      double logVisits = Math.log(Math.max(1, visits));
+      TreeNode best = null;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (TreeNode child : candidates) {
+        int childVisits = child.visits;
+        if (childVisits == 0) {
+          return child;
+        }
+        double winRate = child.points / (double) (WIN_POINTS * childVisits);
+        double value = winRate + EXPLORATION * Math.sqrt(logVisits / childVisits);
+        if (value > bestValue) {
+          bestValue = value;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Count the nodes of the subtree of this node.
+     *
+     * @return the number of nodes, including this node.
+     */
+    int countNodes() {
+      int count = 1;
+      TreeNode[] nodes = children;
+      if (nodes != null) {
+        for (TreeNode child : nodes) {
+          count += child.countNodes();
+        }
+      }
+      return count;
+    }
+  }
+
+  /** The task that runs playouts on its own copy of the game until the search is over. */
+  private final class PlayoutWorker extends RecursiveTask<SearchStatistics> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Chess position;
+    private final boolean timeLimited;
+    private final long deadline;
+    private final SplittableRandom random;
+    private final SearchStatistics workerStatistics = new SearchStatistics();
+    private final TreeNode[] path = new TreeNode[MAX_TREE_DEPTH + 1];
+    private final int[] moves = new int[MAX_MOVES];
+
+    /**
+     * Construct a worker for the given starting position.
+     *
+     * @param chess the starting position, the worker plays on a copy of it.
+     * @param timeLimited whether the worker stops at the deadline rather than after a number of
+     *     playouts.
+     * @param deadline the value of {@link System#nanoTime()} at which the worker stops.
+     * @param seed the seed of the random moves of the worker.
+     */
+    PlayoutWorker(Chess chess, boolean timeLimited, long deadline, long seed) {
+      this.position = new Chess(chess);
+      this.timeLimited = timeLimited;
+      this.deadline = deadline;
+      this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    protected SearchStatistics compute() {
+      while (hasPlayoutLeft()) {
+        playOnce();
+        workerStatistics.countNode();
+      }
+      return workerStatistics;
+    }
+
+    /**
+     * Check whether the worker may start another playout.
+     *
+     * @return true if the search was not cancelled and neither the time is up nor all playouts
+     *     have been played.
+     */
+    private boolean hasPlayoutLeft() {
+      if (cancellation.get()) {
+        return false;
+      }
+      if (timeLimited) {
+        return System.nanoTime() - deadline < 0;
+      }
+      return remainingPlayouts.getAndDecrement() > 0;
+    }
+
+    /**
+     * Walk down the tree, expand the position the walk ends in, play the game to its end and add
+     * the result to all positions of the walk.
+     */
+    private void playOnce() {
+      int length = 0;
+      TreeNode node = root;
+      node.addVirtualLoss();
+      path[length++] = node;
+      while (length <= MAX_TREE_DEPTH && isRunning()) {
+        if (node.children == null) {
+          if ((node.visits < VISITS_BEFORE_EXPANSION && node != root)
+              || treeSize.get() >= MAX_TREE_NODES) {
+            break;
+          }
+          treeSize.addAndGet(node.expand(position, moves));
+        }
+        TreeNode child = node.select();
+        if (child == null) {
+          break;
+        }
+        node = child;
+        node.addVirtualLoss();
+        position.makeMove(node.move);
+        path[length++] = node;
+      }
+      if (length - 1 > workerStatistics.getDepth()) {
+        workerStatistics.setDepth(length - 1);
+      }
+      Player winner = playout();
+      for (int i = 0; i < length; i++) {
+        path[i].addResult(winner);
+      }
+      for (int i = 1; i < length; i++) {
+        position.unmakeMove();
+      }
+    }
+
+    /**
+     * Play the game from the current position to its end and take the moves back again.
+     *
+     * @return the winner of the game, or null for a draw.
+     */
+    private Player playout() {
+      int played = 0;
+      while (played < MAX_PLAYOUT_MOVES && isRunning()) {
+        int count = position.generateMoves(moves);
+        if (count == 0) {
+          break;
+        }
+        position.makeMove(choosePlayoutMove(moves, count, random));
+        played++;
+      }
+      Player winner = isRunning() ? null : position.getState().getWinnerOrNull();
+      for (int i = 0; i < played; i++) {
+        position.unmakeMove();
+      }
+      return winner;
+    }
+
+    /**
+     * Check whether the game of the worker is still running.
+     *
+     * @return true if the current position is not the end of the game.
+     */
+    private boolean isRunning() {
+      return position.getState().getCurrentPhase() == Phase.RUNNING;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package chess.model;
+
+/**
+ * The class Move encodes a move of a pawn in a single int so that the search algorithms can store
+ * and pass around moves without creating any objects. The lowest six bits hold the square the pawn
+ * moves from and the next six bits hold the square it moves to, both as square indices of the
+ * {@link BitBoard}. The value {@link #NONE} stands for "no move".
+ */
+final class Move {
+
+  static final int NONE = 0;
+
+  static final int SQUARE_BITS = 6;
+  private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+
+  private Move() {}
+
+  /**
+   * Encode a move.
+   *
+   * @param from the square the pawn moves from
+   * @param to the square the pawn moves to
+   * @return the encoded move
+   */
+  static int of(int from, int to) {
+    return from | (to << SQUARE_BITS);
+  }
+
+  /**
+   * Encode a move given by its cells.
+   *
+   * @param from the cell the pawn moves from
+   * @param to the cell the pawn moves to
+   * @return the encoded move
+   */
+  static int of(Cell from, Cell to) {
+    return of(from.getSquare(), to.getSquare());
+  }
+
+  /**
+   * Return the square an encoded move starts from.
+   *
+   * @param move the encoded move
+   * @return the square the pawn moves from
+   */
+  static int from(int move) {
+    return move & SQUARE_MASK;
+  }
+
+  /**
+   * Return the square an encoded move ends on.
+   *
+   * @param move the encoded move
+   * @return the square the pawn moves to
+   */
+  static int to(int move) {
+    return (move >>> SQUARE_BITS) & SQUARE_MASK;
+  }
+
+  /**
+   * Return the cell an encoded move starts from.
+   *
+   * @param move the encoded move
+   * @return the cell the pawn moves from
+   */
+  static Cell fromCell(int move) {
+    return Cell.ofSquare(from(move));
+  }
+
+  /**
+   * Return the cell an encoded move ends on.
+   *
+   * @param move the encoded move
+   * @return the cell the pawn moves to
+   */
+  static Cell toCell(int move) {
+    return Cell.ofSquare(to(move));
+  }
+
+  /**
+   * Describe an encoded move in the notation of the shell, for example "E7-E5".
+   *
+   * @param move the encoded move
+   * @return a readable representation of the move
+   */
+  static String toString(int move) {
+    if (move == NONE) {
+      return "-";
+    }
+    return squareName(from(move)) + "-" + squareName(to(move));
+  }
+
+  private static String squareName(int square) {
+    return "" + (char) ('A' + BitBoard.column(square)) + (BitBoard.row(square) + 1);
+  }
+}
@@ -0,0 +1,193 @@
+package chess.model;
+
+import static chess.model.Chess.FIRST_ROW;
+import static chess.model.Chess.LAST_ROW;
+
+import java.util.Arrays;
+
+/**
+ * The class MoveOrdering sorts the moves of a position so that the moves that are most likely the
+ * best are searched first. Alpha-beta pruning cuts off the remaining moves of a position as soon as
+ * one move is good enough, so the earlier a good move is searched, the fewer positions the search
+ * has to look at. The moves are ranked as follows:
+ *
+ * <ol>
+ *   <li>the best move the transposition table remembers for the position,
+ *   <li>captures, which change the material on the field,
+ *   <li>pushes to the first or last row, which win the game,
+ *   <li>the two killer moves of the level, that is the quiet moves that most recently caused a
+ *       cut-off in a sibling position,
+ *   <li>all other moves, by their history score: the more often and the deeper a move caused a
+ *       cut-off anywhere in the tree, the higher its score.
+ * </ol>
+ *
+ * <p>The moves are not sorted completely. Instead, {@link #next(int[], int[], int, int)} picks the
+ * best remaining move right before it is searched, so no time is wasted on sorting the moves that
+ * are cut off.
+ */
+class MoveOrdering {
+
+  private static final int TABLE_MOVE_SCORE = 1 << 30;
+  private static final int CAPTURE_SCORE = 1 << 29;
+  private static final int FINISH_LINE_SCORE = 1 << 28;
+  private static final int KILLER_SCORE = 1 << 27;
+  private static final int HISTORY_LIMIT = 1 << 26;
+  private static final int KILLERS_PER_LEVEL = 2;
+
+  private final int[][] killers;
+  private final int[] history = new int[1 << (2 * Move.SQUARE_BITS)];
+
+  /**
+   * Construct the move ordering for a search with the given number of levels.
+   *
+   * @param levels the number of levels killer moves are kept for.
+   */
+  MoveOrdering(int levels) {
+    killers = new int[levels][KILLERS_PER_LEVEL];
+  }
+
+  /**
+   * Prepare the ordering for a search that starts the given number of moves later in the game. The
+   * killer moves of each level move up by that many levels, because a position that was that many
+   * levels deep is now at the top. The history scores are halved, so that the cut-offs of the new
+   * search soon outweigh the old ones.
+   *
+   * @param plies the number of moves made since the previous search started.
+   */
+  void newSearch(int plies) {
+    for (int ply = 0; ply < killers.length; ply++) {
+      int[] killersOfPly = killers[ply];
+      if (ply + plies < killers.length) {
+        System.arraycopy(killers[ply + plies], 0, killersOfPly, 0, KILLERS_PER_LEVEL);
+      } else {
+        Arrays.fill(killersOfPly, Move.NONE);
+      }
+    }
+    for (int i = 0; i < history.length; i++) {
+      history[i] >>= 1;
+    }
+  }
+
+  /**
+   * Rate the moves of a position.
+   *
+   * @param chess the position the moves are made in.
+   * @param moves the moves of the position.
+   * @param scores the array the rating of each move is written to.
+   * @param count the number of moves.
+   * @param ply the level of the position within the search.
+   * @param tableMove the move the transposition table holds for the position, or {@link
+   *     Move#NONE}.
+   */
+  void score(Chess chess, int[] moves, int[] scores, int count, int ply, int tableMove) {
+    BitBoard board = chess.getState().getField().getBitBoard();
+    int[] killersOfPly = killers[ply];
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      int to = Move.to(move);
+      int score = 0;
+      if (move == tableMove) {
+        score = TABLE_MOVE_SCORE;
+      } else if (board.isOccupied(to)) {
+        score = CAPTURE_SCORE;
+      } else if (isFinishLine(to)) {
+        score = FINISH_LINE_SCORE;
+      } else if (move == killersOfPly[0]) {
+        score = KILLER_SCORE + 1;
+      } else if (move == killersOfPly[1]) {
+        score = KILLER_SCORE;
+      } else {
+        score = history[move];
+      }
+      scores[i] = score;
+    }
+  }
+
+  /**
+   * Check whether a move is a capture or a move to the finish line. These moves change the
+   * position a lot, and they are rated higher than all other moves, so that {@link #next(int[],
+   * int[], int, int)} returns them first.
+   *
+   * @param chess the position the move is made in.
+   * @param move the inspected move.
+   * @return true if the move captures a pawn or reaches the first or last row, false otherwise.
+   */
+  static boolean isTactical(Chess chess, int move) {
+    int to = Move.to(move);
+    return chess.getState().getField().getBitBoard().isOccupied(to) || isFinishLine(to);
+  }
+
+  /**
+   * Check whether a square lies on the first or last row, where a pawn wins the game.
+   *
+   * @param square the inspected square.
+   * @return true if the square lies on the finish line of one of the players.
+   */
+  static boolean isFinishLine(int square) {
+    int row = BitBoard.row(square);
+    return row == FIRST_ROW || row == LAST_ROW;
+  }
+
+  /**
+   * Check whether a move was rated by its history score only, that is whether it is neither the
+   * move of the transposition table, nor a capture, nor a move to the finish line, nor a killer
+   * move. These are the moves a selective search may search less deep or skip.
+   *
+   * @param score the rating of the move.
+   * @return true if the move is a quiet move without any special rank, false otherwise.
+   */
+  static boolean isHistoryMove(int score) {
+    return score < KILLER_SCORE;
+  }
+
+  /**
+   * Move the best remaining move to the given index and return it.
+   *
+   * @param moves the moves of the position.
+   * @param scores the ratings of the moves.
+   * @param index the index of the first move that has not been searched yet.
+   * @param count the number of moves.
+   * @return the move with the highest rating among the moves that have not been searched yet.
+   */
+  int next(int[] moves, int[] scores, int index, int count) {
+    int best = index;
+    for (int i = index + 1; i < count; i++) {
+      if (scores[i] > scores[best]) {
+        best = i;
+      }
+    }
+    int move = moves[best];
+    moves[best] = moves[index];
+    moves[index] = move;
+    int score = scores[best];
+    scores[best] = scores[index];
+    scores[index] = score;
+    return move;
+  }
+
+  /**
+   * Remember a move that caused a cut-off. Captures and moves to the finish line are searched early
+   * anyway, so only quiet moves become killers and gain history.
+   *
+   * @param chess the position the move was made in.
+   * @param move the move that caused the cut-off.
+   * @param ply the level of the position within the search.
+   * @param depth the number of moves that were still to be looked ahead in the position.
+   */
+  void recordCutoff(Chess chess, int move, int ply, int depth) {
+    if (isTactical(chess, move)) {
+      return;
+    }
+    int[] killersOfPly = killers[ply];
+    if (killersOfPly[0] != move) {
+      killersOfPly[1] = killersOfPly[0];
+      killersOfPly[0] = move;
+    }
+    history[move] += depth * depth;
+    if (history[move] >= HISTORY_LIMIT) {
+      for (int i = 0; i < history.length; i++) {
+        history[i] >>= 1;
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package chess.model;
+
+/**
+ * The class PawnMoveTables holds the targets of every possible pawn move, computed once for every
+ * square and player. For each square, the tables list the cell one step ahead, the cell two steps
+ * ahead, which a pawn can only reach from its own starting line, and the two cells a pawn can
+ * capture on diagonally. A target that would lie outside of the game field is {@link #NO_SQUARE}.
+ * Move generation therefore only has to look up the targets of a pawn and test them against the
+ * masks of the {@link BitBoard}, without any coordinate arithmetic or bounds checks.
+ *
+ * <p>The tables are indexed by the ordinal of the player first and by the square index second.
+ */
+final class PawnMoveTables {
+
+  static final int NO_SQUARE = -1;
+
+  private static final int SQUARES = GameField.SIZE * GameField.SIZE;
+  private static final int[][] SINGLE_PUSHES = createTargets(1, 0, false);
+  private static final int[][] DOUBLE_PUSHES = createTargets(2, 0, true);
+  private static final int[][] LEFT_CAPTURES = createTargets(1, -1, false);
+  private static final int[][] RIGHT_CAPTURES = createTargets(1, 1, false);
+
+  private PawnMoveTables() {}
+
+  /**
+   * Compute the targets of one kind of move for all squares and both players.
+   *
+   * @param steps the number of rows the pawn moves ahead.
+   * @param columnOffset the number of columns the pawn moves to the right, negative to the left.
+   * @param fromFinishLineOnly whether the move is only possible from the first or the last row.
+   * @return the targets, indexed by the ordinal of the player and the square.
+   */
+  private static int[][] createTargets(int steps, int columnOffset, boolean fromFinishLineOnly) {
+    Player[] players = Player.values();
+    int[][] targets = new int[players.length][SQUARES];
+    for (Player player : players) {
+      int direction = player == Player.WHITE ? 1 : -1;
+      for (int square = 0; square < SQUARES; square++) {
+        int row = BitBoard.row(square);
+        int targetRow = row + steps * direction;
+        int targetColumn = BitBoard.column(square) + columnOffset;
+        boolean onField =
+            targetRow >= Chess.FIRST_ROW
+                && targetRow <= Chess.LAST_ROW
+                && targetColumn >= 0
+                && targetColumn < GameField.SIZE;
+        boolean possible =
+            onField && (!fromFinishLineOnly || row == Chess.FIRST_ROW || row == Chess.LAST_ROW);
+        targets[player.ordinal()][square] =
+            possible ? BitBoard.square(targetColumn, targetRow) : NO_SQUARE;
+      }
+    }
+    return targets;
+  }
+
+  /**
+   * Return the targets of a step straight ahead for all squares. The returned array must not be
+   * changed.
+   *
+   * @param player the player whose pawns move.
+   * @return the target square for every square, or {@link #NO_SQUARE}.
+   */
+  static int[] singlePushes(Player player) {
+    return SINGLE_PUSHES[player.ordinal()];
+  }
+
+  /**
+   * Return the targets of a double step straight ahead for all squares. Only the squares of the
+   * first and the last row have one. The returned array must not be changed.
+   *
+   * @param player the player whose pawns move.
+   * @return the target square for every square, or {@link #NO_SQUARE}.
+   */
+  static int[] doublePushes(Player player) {
+    return DOUBLE_PUSHES[player.ordinal()];
+  }
+
+  /**
+   * Return the targets of a capture towards the column on the left for all squares. The returned
+   * array must not be changed.
+   *
+   * @param player the player whose pawns move.
+   * @return the target square for every square, or {@link #NO_SQUARE}.
+   */
+  static int[] leftCaptures(Player player) {
+    return LEFT_CAPTURES[player.ordinal()];
+  }
+
+  /**
+   * Return the targets of a capture towards the column on the right for all squares. The returned
+   * array must not be changed.
+   *
+   * @param player the player whose pawns move.
+   * @return the target square for every square, or {@link #NO_SQUARE}.
+   */
+  static int[] rightCaptures(Player player) {
+    return RIGHT_CAPTURES[player.ordinal()];
+  }
+}
@@ -0,0 +1,192 @@
+package chess.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class PawnStructureCache remembers the structure of the pawns of one player: the cells the
+ * pawns attack and the number of isolated pawns. Both only depend on the player's own pawns, so
+ * they stay valid as long as the player does not move, no matter what the opponent does. In the
+ * search tree, every second move is a move of the opponent, so the structure of a player is looked
+ * up much more often than it changes.
+ *
+ * <p>A structure that is not in the cache is computed pawn by pawn from the cells around each pawn,
+ * the way the evaluation of the original game rated the pawns. It does not use the bit board
+ * shifts of the {@link BitBoardEvaluation}, so the legacy evaluation stays an independent reference
+ * for the faster evaluations that are checked against it.
+ *
+ * <p>The cache is keyed by the bit mask of the player's pawns and has a fixed number of slots,
+ * which is a power of two. A newer structure simply replaces an older one in its slot. Like the
+ * {@link EvaluationCache}, the cache is shared by the threads of the parallel engines without
+ * locking: the stored key is the exclusive or of the pawns with the stored values, so a slot that
+ * is read while another thread writes it counts as a miss.
+ */
+final class PawnStructureCache {
+
+  private static final int BYTES_PER_ENTRY = 3 * Long.BYTES;
+  private static final int BYTES_PER_MEGABYTE = 1 << 20;
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private final Player player;
+  private final long[] keys;
+  private final long[] attacks;
+  private final long[] isolated;
+  private final int shift;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Construct a cache for the pawns of the given player that uses at most the given memory.
+   *
+   * @param player the player whose pawn structures are cached.
+   * @param sizeInMegabytes the memory the cache may use, at least 1.
+   */
+  PawnStructureCache(Player player, int sizeInMegabytes) {
+    this.player = player;
+    long bytes = (long) Math.max(1, sizeInMegabytes) * BYTES_PER_MEGABYTE;
+    int entries = Integer.highestOneBit((int) Math.min(bytes / BYTES_PER_ENTRY, 1 << 30));
+    keys = new long[entries];
+    attacks = new long[entries];
+    isolated = new long[entries];
+    shift = Long.SIZE - Integer.numberOfTrailingZeros(entries);
+  }
+
+  /**
+   * Return the cells the given pawns can capture on. An evaluation asks for the attacks of each
+   * player first, so this lookup is the one that is counted as a hit or a miss.
+   *
+   * @param pawns the mask of the pawns of the player.
+   * @return the mask of the attacked cells.
+   */
+  long getAttacks(long pawns) {
+    int slot = slotOf(pawns);
+    long attacksOfSlot = attacks[slot];
+    if ((keys[slot] ^ attacksOfSlot ^ isolated[slot]) == pawns) {
+      hits.increment();
+      return attacksOfSlot;
+    }
+    misses.increment();
+    long computedAttacks = computeAttacks(pawns);
+    store(slot, pawns, computedAttacks, computeIsolatedCount(pawns));
+    return computedAttacks;
+  }
+
+  /**
+   * Return the number of pawns that have no pawn of the same player among their neighbours. The
+   * structure was usually just looked up by {@link #getAttacks(long)}, so this lookup is not
+   * counted again.
+   *
+   * @param pawns the mask of the pawns of the player.
+   * @return the number of isolated pawns.
+   */
+  int getIsolatedCount(long pawns) {
+    int slot = slotOf(pawns);
+    long isolatedOfSlot = isolated[slot];
+    if ((keys[slot] ^ attacks[slot] ^ isolatedOfSlot) == pawns) {
+      return (int) isolatedOfSlot;
+    }
+    int computedIsolatedCount = computeIsolatedCount(pawns);
+    store(slot, pawns, computeAttacks(pawns), computedIsolatedCount);
+    return computedIsolatedCount;
+  }
+
+  /**
+   * Return the slot the structure of the given pawns is stored in.
+   *
+   * @param pawns the mask of the pawns of the player.
+   * @return the index of the slot.
+   */
+  private int slotOf(long pawns) {
+    return (int) ((pawns * HASH_MULTIPLIER) >>> shift);
+  }
+
+  /**
+   * Store the structure of the given pawns in a slot.
+   *
+   * @param slot the index of the slot.
+   * @param pawns the mask of the pawns of the player.
+   * @param attacksOfPawns the cells the pawns attack.
+   * @param isolatedCount the number of isolated pawns.
+   */
+  private void store(int slot, long pawns, long attacksOfPawns, int isolatedCount) {
+    keys[slot] = pawns ^ attacksOfPawns ^ isolatedCount;
+    attacks[slot] = attacksOfPawns;
+    isolated[slot] = isolatedCount;
+  }
+
+  /**
+   * Compute the cells the given pawns can capture on: the two cells diagonally in front of each
+   * pawn.
+   *
+   * @param pawns the mask of the pawns of the player.
+   * @return the mask of the attacked cells.
+   */
+  private long computeAttacks(long pawns) {
+    int moveDirection = player == Player.WHITE ? 1 : -1;
+    long attacked = 0;
+    for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+      Cell cell = Cell.ofSquare(Long.numberOfTrailingZeros(remaining));
+      attacked |= maskOf(cell.getColumn() - 1, cell.getRow() + moveDirection);
+      attacked |= maskOf(cell.getColumn() + 1, cell.getRow() + moveDirection);
+    }
+    return attacked;
+  }
+
+  /**
+   * Compute the number of pawns that have no pawn of the same player on any of the eight cells
+   * surrounding them.
+   *
+   * @param pawns the mask of the pawns of the player.
+   * @return the number of isolated pawns.
+   */
+  private int computeIsolatedCount(long pawns) {
+    int isolatedCount = 0;
+    for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+      Cell cell = Cell.ofSquare(Long.numberOfTrailingZeros(remaining));
+      long surrounding = 0;
+      for (int columnStep = -1; columnStep <= 1; columnStep++) {
+        for (int rowStep = -1; rowStep <= 1; rowStep++) {
+          if (columnStep != 0 || rowStep != 0) {
+            surrounding |= maskOf(cell.getColumn() + columnStep, cell.getRow() + rowStep);
+          }
+        }
+      }
+      if ((pawns & surrounding) == 0) {
+        isolatedCount++;
+      }
+    }
+    return isolatedCount;
+  }
+
+  /**
+   * Return the mask of a single cell.
+   *
+   * @param column the column of the cell.
+   * @param row the row of the cell.
+   * @return the mask with only the bit of the cell set, or 0 if the cell lies outside the field.
+   */
+  private static long maskOf(int column, int row) {
+    if (column < 0 || column >= GameField.SIZE || row < 0 || row >= GameField.SIZE) {
+      return 0;
+    }
+    return 1L << BitBoard.square(column, row);
+  }
+
+  /**
+   * Getter: returns how often a structure was found in the cache since it was created. Each
+   * evaluation counts one lookup.
+   *
+   * @return the number of hits.
+   */
+  long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Getter: returns how often a structure had to be computed since the cache was created.
+   *
+   * @return the number of misses.
+   */
+  long getMisses() {
+    return misses.sum();
+  }
+}
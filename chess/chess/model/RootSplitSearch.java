@@ -0,0 +1,206 @@
+package chess.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class RootSplitSearch searches the moves of the starting position in parallel. The children
+ * of the root are distributed as tasks over the workers of a {@link ForkJoinPool}, and every task
+ * searches its subtree with its own {@link DepthFirstSearch} on its own copy of the game, without
+ * a transposition table.
+ *
+ * <p>The best value found so far is shared by all tasks through an atomic variable. A task reads it
+ * when it starts and only looks for values above it, so subtrees that are searched later get
+ * narrower windows and more cut-offs. The first child is searched on its own before the others are
+ * started, so that the parallel tasks start with a useful bound.
+ *
+ * <p>A child whose value does not exceed the bound it was searched with only has an upper bound as
+ * its value. The move that is chosen is therefore always the move of a child with an exact value,
+ * which is the value a plain minimax search of the same depth computes for the starting position.
+ */
+class RootSplitSearch {
+
+  private final StrategyEvaluation evaluation;
+  private final ForkJoinPool pool;
+  private final SearchStatistics statistics = new SearchStatistics();
+  private AtomicBoolean cancellation = new AtomicBoolean();
+  private int bestMove = Move.NONE;
+  private int completedDepth;
+
+  /**
+   * Construct a search that rates the leaves with the given evaluation and runs its tasks in the
+   * given pool.
+   *
+   * @param evaluation the evaluation functions used for the leaves.
+   * @param pool the pool whose workers search the children of the root.
+   */
+  RootSplitSearch(StrategyEvaluation evaluation, ForkJoinPool pool) {
+    this.evaluation = evaluation;
+    this.pool = pool;
+  }
+
+  /**
+   * Let the tasks of the search stop as soon as the given flag is set.
+   *
+   * @param cancellation the flag that cancels the search when it is set.
+   */
+  void setCancellation(AtomicBoolean cancellation) {
+    this.cancellation = cancellation;
+  }
+
+  /**
+   * Search the root with iterative deepening until either the given depth is reached or the time
+   * budget is used up. The first iteration is always completed.
+   *
+   * @param root the starting position, whose children have already been calculated.
+   * @param maxDepth the number of moves to look ahead at most.
+   * @param timeBudgetMillis the time the search may take in milliseconds, or 0 for no limit.
+   */
+  void search(Node root, int maxDepth, long timeBudgetMillis) {
+    long start = System.nanoTime();
+    long deadline = start + timeBudgetMillis * 1_000_000L;
+    List<Node> children = root.getChildren();
+    for (int depth = 1; depth <= maxDepth && !children.isEmpty(); depth++) {
+      boolean timeLimited = timeBudgetMillis > 0 && depth > 1;
+      int move = searchIteration(root, depth, timeLimited, deadline);
+      if (move == Move.NONE) {
+        break;
+      }
+      bestMove = move;
+      completedDepth = depth;
+      if (timeLimited && System.nanoTime() - deadline >= 0) {
+        break;
+      }
+    }
+    statistics.setDepth(completedDepth);
+    statistics.addElapsedNanos(System.nanoTime() - start);
+  }
+
+  /**
+   * Search all children of the root to the given depth.
+   *
+   * @param root the starting position.
+   * @param depth the number of moves to look ahead, including the move to the child.
+   * @param timeLimited whether the iteration is aborted at the deadline.
+   * @param deadline the value of {@link System#nanoTime()} at which the iteration is aborted.
+   * @return the best move, or {@link Move#NONE} if the iteration was aborted.
+   */
+  private int searchIteration(Node root, int depth, boolean timeLimited, long deadline) {
+    List<Node> children = root.getChildren();
+    Player player = root.getChessStateOfNode().getState().getCurrentPlayer();
+    AtomicLong alpha = new AtomicLong(Double.doubleToLongBits(Double.NEGATIVE_INFINITY));
+    List<ChildSearch> tasks = new ArrayList<>(children.size());
+    for (Node child : children) {
+      tasks.add(new ChildSearch(child, player, depth - 1, alpha, timeLimited, deadline));
+    }
+    tasks.get(0).invoke();
+    for (int i = 1; i < tasks.size(); i++) {
+      pool.execute(tasks.get(i));
+    }
+    int move = Move.NONE;
+    double bestValue = Double.NEGATIVE_INFINITY;
+    boolean aborted = false;
+    for (ChildSearch task : tasks) {
+      double value = task.join();
+      statistics.add(task.search.getStatistics());
+      aborted |= task.search.isAborted();
+      if (value > task.window && value > bestValue) {
+        bestValue = value;
+        move = Move.of(task.child.getMovedFrom(), task.child.getMovedTo());
+      }
+    }
+    return aborted ? Move.NONE : move;
+  }
+
+  /**
+   * Getter: returns the best move of the deepest completed iteration.
+   *
+   * @return the best move, or {@link Move#NONE} if the root has no children.
+   */
+  int getBestMove() {
+    return bestMove;
+  }
+
+  /**
+   * Getter: returns the statistics of all tasks of the search.
+   *
+   * @return the merged statistics.
+   */
+  SearchStatistics getStatistics() {
+    return statistics;
+  }
+
+  /** The task that searches the subtree of one child of the root. */
+  private final class ChildSearch extends RecursiveTask<Double> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Node child;
+    private final Player rootPlayer;
+    private final int depth;
+    private final AtomicLong alpha;
+    private final DepthFirstSearch search = new DepthFirstSearch(evaluation, null);
+    private double window;
+
+    /**
+     * Construct the task for a child of the root.
+     *
+     * @param child the child to search.
+     * @param rootPlayer the player to move in the root.
+     * @param depth the number of moves to look ahead from the child.
+     * @param alpha the best value of the root found so far, as bits of a double.
+     * @param timeLimited whether the task is aborted at the deadline.
+     * @param deadline the value of {@link System#nanoTime()} at which the task is aborted.
+     */
+    ChildSearch(
+        Node child,
+        Player rootPlayer,
+        int depth,
+        AtomicLong alpha,
+        boolean timeLimited,
+        long deadline) {
+      this.child = child;
+      this.rootPlayer = rootPlayer;
+      this.depth = depth;
+      this.alpha = alpha;
+      search.setCancellation(cancellation);
+      if (timeLimited) {
+        search.setDeadline(deadline);
+      }
+    }
+
+    @Override
+    protected Double compute() {
+      window = Double.longBitsToDouble(alpha.get());
+      Chess chess = child.getChessStateOfNode();
+      double value;
+      if (chess.getState().getCurrentPlayer() == rootPlayer) {
+        value = search.searchWindow(chess, depth, window, Double.POSITIVE_INFINITY);
+      } else {
+        value = -search.searchWindow(chess, depth, Double.NEGATIVE_INFINITY, -window);
+      }
+      if (!search.isAborted()) {
+        raiseAlpha(value);
+      }
+      return value;
+    }
+
+    /**
+     * Raise the shared bound to the given value, unless another task has already found a higher
+     * one.
+     *
+     * @param value the value of the child.
+     */
+    private void raiseAlpha(double value) {
+      long current = alpha.get();
+      while (value > Double.longBitsToDouble(current)
+          && !alpha.compareAndSet(current, Double.doubleToLongBits(value))) {
+        current = alpha.get();
+      }
+    }
+  }
+}
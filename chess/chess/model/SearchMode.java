@@ -0,0 +1,49 @@
+package chess.model;
+
+/**
+ * The enumeration SearchMode lists the engines the AI can use to find its next move. The legacy
+ * engine builds the complete minimax tree before evaluating it, the alpha-beta engine expands the
+ * tree while searching it and skips all branches that cannot influence the chosen move. The
+ * depth-first engine performs the same search without creating a tree at all, the principal
+ * variation engine additionally tests most moves with a null window only, and the selective engine
+ * also searches unpromising moves less deep or not at all. The Lazy SMP engine runs several
+ * depth-first searches in parallel threads that share their transposition table, the root split
+ * engine distributes the moves of the starting position over several threads. The Monte Carlo
+ * engine does not rate positions at all, but plays random games to their end.
+ */
+public enum SearchMode {
+  LEGACY("Legacy"),
+  ALPHA_BETA("Alpha-Beta"),
+  DEPTH_FIRST("Depth-First"),
+  PRINCIPAL_VARIATION("Principal Variation"),
+  SELECTIVE("Selective"),
+  LAZY_SMP("Lazy SMP"),
+  ROOT_SPLIT("Root Split"),
+  MONTE_CARLO("Monte Carlo");
+
+  private final String modeName;
+
+  /**
+   * Constructor of the SearchMode enumeration: sets up the variable modeName.
+   *
+   * @param modeName a string that describes the engine
+   */
+  SearchMode(String modeName) {
+    this.modeName = modeName;
+  }
+
+  /**
+   * Check whether the engine can think on the time of its opponent. Only the serial depth-first
+   * engines can, because they predict the reply of the opponent from their principal variation.
+   *
+   * @return true for the depth-first, principal variation and selective engines, false otherwise
+   */
+  public boolean canPonder() {
+    return this == DEPTH_FIRST || this == PRINCIPAL_VARIATION || this == SELECTIVE;
+  }
+
+  @Override
+  public String toString() {
+    return modeName;
+  }
+}
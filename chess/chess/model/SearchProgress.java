@@ -0,0 +1,96 @@
+package chess.model;
+
+/**
+ * The class SearchProgress describes how far a running search of the AI has come: the depth it has
+ * completed, the number of positions it has visited and the best move it has found so far. The
+ * AI publishes it repeatedly while it thinks, at most once every {@link
+ * MiniMaxAlgorithm#PROGRESS_INTERVAL_MILLIS} milliseconds, and once more when the search is over.
+ */
+public final class SearchProgress {
+
+  private final int depth;
+  private final long nodes;
+  private final long elapsedMillis;
+  private final Cell bestMoveFrom;
+  private final Cell bestMoveTo;
+  private final boolean finished;
+
+  /**
+   * Construct a snapshot of a running or finished search.
+   *
+   * @param depth the depth of the deepest completed iteration.
+   * @param nodes the number of positions visited so far.
+   * @param elapsedMillis the time the search has taken so far in milliseconds.
+   * @param bestMove the best move found so far, or {@link Move#NONE} if there is none yet.
+   * @param finished whether the search is over.
+   */
+  SearchProgress(int depth, long nodes, long elapsedMillis, int bestMove, boolean finished) {
+    this.depth = depth;
+    this.nodes = nodes;
+    this.elapsedMillis = elapsedMillis;
+    this.bestMoveFrom = bestMove == Move.NONE ? null : Move.fromCell(bestMove);
+    this.bestMoveTo = bestMove == Move.NONE ? null : Move.toCell(bestMove);
+    this.finished = finished;
+  }
+
+  /**
+   * Getter: returns the depth of the deepest iteration the search has completed.
+   *
+   * @return the number of moves the search has looked ahead so far.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Getter: returns the number of positions the search has visited so far.
+   *
+   * @return the number of visited positions.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Getter: returns the time the search has taken so far.
+   *
+   * @return the elapsed time in milliseconds.
+   */
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * Getter: returns the starting cell of the best move found so far.
+   *
+   * @return the cell to move the pawn from, or null if no move was found yet.
+   */
+  public Cell getBestMoveFrom() {
+    return bestMoveFrom;
+  }
+
+  /**
+   * Getter: returns the target cell of the best move found so far.
+   *
+   * @return the cell to move the pawn to, or null if no move was found yet.
+   */
+  public Cell getBestMoveTo() {
+    return bestMoveTo;
+  }
+
+  /**
+   * Getter: returns whether the search is over, so that no further progress follows.
+   *
+   * @return true for the last progress of a search, false otherwise.
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  @Override
+  public String toString() {
+    String move = bestMoveFrom == null ? "-" : bestMoveFrom + " -> " + bestMoveTo;
+    return String.format(
+        "depth %d, %d nodes, %d ms, best move %s", depth, nodes, elapsedMillis, move);
+  }
+}
@@ -0,0 +1,357 @@
+package chess.model;
+
+/**
+ * The class SearchStatistics collects the numbers that describe the work of a search: how deep it
+ * looked, how long it took, how many positions were visited, how often the transposition table
+ * already knew a position, how often the first move of a position already caused a cut-off,
+ * which shows how well the moves are ordered, and how often the evaluation cache and the pawn
+ * structure caches knew a rating. The statistics of the last move of the AI are available from
+ * {@link MiniMaxAlgorithm#getStatistics()}.
+ */
+public class SearchStatistics {
+
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private int depth;
+  private long elapsedNanos;
+  private long nodes;
+  private long quiescenceNodes;
+  private long tableProbes;
+  private long tableHits;
+  private long cutoffs;
+  private long firstMoveCutoffs;
+  private long researches;
+  private long reductions;
+  private long prunedMoves;
+  private long ponderHits;
+  private long evaluationCacheHits;
+  private long evaluationCacheMisses;
+  private long pawnStructureCacheHits;
+  private long pawnStructureCacheMisses;
+
+  /** Count a visited position. */
+  void countNode() {
+    nodes++;
+  }
+
+  /** Count a visited position of the quiescence search. */
+  void countQuiescenceNode() {
+    quiescenceNodes++;
+  }
+
+  /**
+   * Count a look-up in the transposition table.
+   *
+   * @param hit true if the table held an entry for the position.
+   */
+  void countTableProbe(boolean hit) {
+    tableProbes++;
+    if (hit) {
+      tableHits++;
+    }
+  }
+
+  /**
+   * Count a cut-off, that is a position whose remaining moves were skipped because a move was good
+   * enough.
+   *
+   * @param firstMove true if the first move that was searched caused the cut-off.
+   */
+  void countCutoff(boolean firstMove) {
+    cutoffs++;
+    if (firstMove) {
+      firstMoveCutoffs++;
+    }
+  }
+
+  /**
+   * Count a position that had to be searched again because its value fell outside the window it
+   * was searched with.
+   */
+  void countResearch() {
+    researches++;
+  }
+
+  /** Count a move that was searched less deep than the other moves of its position. */
+  void countReduction() {
+    reductions++;
+  }
+
+  /**
+   * Count moves that were skipped because they could not change the value of their position.
+   *
+   * @param moves the number of skipped moves.
+   */
+  void countPrunedMoves(int moves) {
+    prunedMoves += moves;
+  }
+
+  /** Count a move that was taken from the search the AI made while its opponent was thinking. */
+  void countPonderHit() {
+    ponderHits++;
+  }
+
+  /**
+   * Count look-ups in the evaluation cache.
+   *
+   * @param hits the number of ratings that were found in the cache.
+   * @param misses the number of ratings that had to be computed.
+   */
+  void countEvaluationCacheLookups(long hits, long misses) {
+    evaluationCacheHits += hits;
+    evaluationCacheMisses += misses;
+  }
+
+  /**
+   * Count look-ups in the pawn structure caches.
+   *
+   * @param hits the number of structures that were found in the caches.
+   * @param misses the number of structures that had to be computed.
+   */
+  void countPawnStructureCacheLookups(long hits, long misses) {
+    pawnStructureCacheHits += hits;
+    pawnStructureCacheMisses += misses;
+  }
+
+  /**
+   * Set the depth the search completed.
+   *
+   * @param depth the number of moves the search looked ahead.
+   */
+  void setDepth(int depth) {
+    this.depth = depth;
+  }
+
+  /**
+   * Add to the time the search took.
+   *
+   * @param nanos the additional time in nanoseconds.
+   */
+  void addElapsedNanos(long nanos) {
+    elapsedNanos += nanos;
+  }
+
+  /**
+   * Add the numbers of other statistics to these statistics. This merges the statistics of searches
+   * that ran at the same time: the counters are summed up, while depth and time are the maximum of
+   * both.
+   *
+   * @param other the statistics to add.
+   */
+  void add(SearchStatistics other) {
+    depth = Math.max(depth, other.depth);
+    elapsedNanos = Math.max(elapsedNanos, other.elapsedNanos);
+    nodes += other.nodes;
+    quiescenceNodes += other.quiescenceNodes;
+    tableProbes += other.tableProbes;
+    tableHits += other.tableHits;
+    cutoffs += other.cutoffs;
+    firstMoveCutoffs += other.firstMoveCutoffs;
+    researches += other.researches;
+    reductions += other.reductions;
+    prunedMoves += other.prunedMoves;
+    ponderHits += other.ponderHits;
+    evaluationCacheHits += other.evaluationCacheHits;
+    evaluationCacheMisses += other.evaluationCacheMisses;
+    pawnStructureCacheHits += other.pawnStructureCacheHits;
+    pawnStructureCacheMisses += other.pawnStructureCacheMisses;
+  }
+
+  /**
+   * Getter: returns the depth of the deepest completed iteration.
+   *
+   * @return the number of moves the search looked ahead.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Getter: returns the time the search took.
+   *
+   * @return the duration of the search in milliseconds.
+   */
+  public long getElapsedMillis() {
+    return elapsedNanos / 1_000_000L;
+  }
+
+  /**
+   * Returns the number of positions visited per second.
+   *
+   * @return the speed of the search.
+   */
+  public double getNodesPerSecond() {
+    return elapsedNanos == 0 ? 0 : nodes * NANOS_PER_SECOND / elapsedNanos;
+  }
+
+  /**
+   * Getter: returns the number of visited positions.
+   *
+   * @return the number of nodes of the search tree.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Getter: returns the number of look-ups in the transposition table.
+   *
+   * @return the number of probes.
+   */
+  public long getTableProbes() {
+    return tableProbes;
+  }
+
+  /**
+   * Getter: returns the number of look-ups that found the position in the transposition table.
+   *
+   * @return the number of hits.
+   */
+  public long getTableHits() {
+    return tableHits;
+  }
+
+  /**
+   * Returns the share of look-ups that found the position in the transposition table.
+   *
+   * @return the hit rate, between 0 and 1.
+   */
+  public double getTableHitRate() {
+    return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+  }
+
+  /**
+   * Getter: returns the number of positions visited by the quiescence search. They are included in
+   * the number of visited positions.
+   *
+   * @return the number of positions visited beyond the depth of the search.
+   */
+  public long getQuiescenceNodes() {
+    return quiescenceNodes;
+  }
+
+  /**
+   * Getter: returns the number of cut-offs.
+   *
+   * @return the number of positions whose remaining moves were skipped.
+   */
+  public long getCutoffs() {
+    return cutoffs;
+  }
+
+  /**
+   * Returns the share of cut-offs that were caused by the first move searched in a position. With
+   * a perfect move ordering, this is 1.
+   *
+   * @return the first move cut-off rate, between 0 and 1.
+   */
+  public double getFirstMoveCutoffRate() {
+    return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+  }
+
+  /**
+   * Getter: returns the number of ratings that were found in the evaluation cache. The depth-first
+   * engines rate the positions of their search incrementally without the cache, so for them the
+   * count is zero or close to it.
+   *
+   * @return the number of cache hits.
+   */
+  public long getEvaluationCacheHits() {
+    return evaluationCacheHits;
+  }
+
+  /**
+   * Getter: returns the number of ratings that were not found in the evaluation cache.
+   *
+   * @return the number of cache misses.
+   */
+  public long getEvaluationCacheMisses() {
+    return evaluationCacheMisses;
+  }
+
+  /**
+   * Getter: returns the number of positions that were searched again with a wider window.
+   *
+   * @return the number of re-searches.
+   */
+  public long getResearches() {
+    return researches;
+  }
+
+  /**
+   * Getter: returns the number of moves that were searched less deep than the other moves of their
+   * position.
+   *
+   * @return the number of reduced moves.
+   */
+  public long getReductions() {
+    return reductions;
+  }
+
+  /**
+   * Getter: returns the number of moves that were skipped by futility pruning.
+   *
+   * @return the number of pruned moves.
+   */
+  public long getPrunedMoves() {
+    return prunedMoves;
+  }
+
+  /**
+   * Getter: returns the number of moves that were taken from the search the AI made while its
+   * opponent was thinking.
+   *
+   * @return the number of ponder hits.
+   */
+  public long getPonderHits() {
+    return ponderHits;
+  }
+
+  /**
+   * Getter: returns the number of pawn structures that were found in the pawn structure caches.
+   *
+   * @return the number of cache hits.
+   */
+  public long getPawnStructureCacheHits() {
+    return pawnStructureCacheHits;
+  }
+
+  /**
+   * Getter: returns the number of pawn structures that were not found in the pawn structure caches.
+   *
+   * @return the number of cache misses.
+   */
+  public long getPawnStructureCacheMisses() {
+    return pawnStructureCacheMisses;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "depth: %d, time: %d ms, nodes: %d (%.0f/s, %d in quiescence),"
+            + " table hit rate: %.1f%% (%d of %d),"
+            + " first move cut-offs: %.1f%% (%d of %d),"
+            + " re-searches: %d, reductions: %d, pruned moves: %d, ponder hits: %d,"
+            + " evaluation cache: %d hits, %d misses,"
+            + " pawn structure cache: %d hits, %d misses",
+        depth,
+        getElapsedMillis(),
+        nodes,
+        getNodesPerSecond(),
+        quiescenceNodes,
+        100 * getTableHitRate(),
+        tableHits,
+        tableProbes,
+        100 * getFirstMoveCutoffRate(),
+        firstMoveCutoffs,
+        cutoffs,
+        researches,
+        reductions,
+        prunedMoves,
+        ponderHits,
+        evaluationCacheHits,
+        evaluationCacheMisses,
+        pawnStructureCacheHits,
+        pawnStructureCacheMisses);
+  }
+}
@@ -0,0 +1,155 @@
+package chess.model;
+
+import java.util.Arrays;
+
+/**
+ * The class TranspositionTable remembers the results of positions that were already searched. In a
+ * game of pawns, the same position is reached by many different orders of moves, and the table
+ * lets the search reuse the earlier result instead of searching the position again.
+ *
+ * <p>The table has a fixed number of slots, which is a power of two, so that the slot of a
+ * position is simply the lower bits of its Zobrist key. Each slot stores the full key, the depth
+ * the position was searched to, whether the stored score is exact or only a lower or upper bound,
+ * and the best move. The entries are kept in primitive arrays, so the table causes no garbage.
+ * When two positions compete for a slot, the entry that was searched deeper wins, unless it stems
+ * from an earlier search.
+ *
+ * <p>The table is shared by the threads of a parallel search without any locking. A slot consists
+ * of three array elements that are written one after the other, so a thread may read a slot that
+ * another thread is just writing. To detect this, the stored key is the exclusive or of the
+ * position's key with the other two elements. A slot whose elements do not belong together does
+ * not reproduce the key of the probed position and is treated as a miss.
+ *
+ * <p>The evaluation rates a win higher the earlier it happens, counted from the starting position
+ * of the search. Scores that contain a win are stored the way they were seen at the level they
+ * were searched at, so a transposition to a different level reuses them with a slightly different
+ * weighting of the win. The score of an entry of an earlier search is weighted for a different
+ * starting position altogether, so {@link #probe(long, Entry)} marks such entries and the search
+ * only takes their best move, never their score.
+ */
+class TranspositionTable {
+
+  static final int EXACT = 0;
+  static final int LOWER_BOUND = 1;
+  static final int UPPER_BOUND = 2;
+
+  private static final int BYTES_PER_ENTRY = 3 * Long.BYTES;
+  private static final int BYTES_PER_MEGABYTE = 1 << 20;
+  private static final int MOVE_BITS = 12;
+  private static final int DEPTH_BITS = 8;
+  private static final int BOUND_BITS = 2;
+  private static final int DEPTH_SHIFT = MOVE_BITS;
+  private static final int BOUND_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+  private static final int GENERATION_SHIFT = BOUND_SHIFT + BOUND_BITS;
+  private static final long USED = 1L << 62;
+
+  private final long[] keys;
+  private final long[] data;
+  private final long[] scores;
+  private final int mask;
+  private int generation;
+
+  /** The content of a slot, filled by {@link TranspositionTable#probe(long, Entry)}. */
+  static final class Entry {
+    int depth;
+    int bound;
+    double score;
+    int move;
+    boolean fromEarlierSearch;
+  }
+
+  /**
+   * Construct a table that uses at most the given amount of memory.
+   *
+   * @param sizeInMegabytes the memory the table may use, at least 1.
+   */
+  TranspositionTable(int sizeInMegabytes) {
+    long bytes = (long) Math.max(1, sizeInMegabytes) * BYTES_PER_MEGABYTE;
+    int entries = Integer.highestOneBit((int) Math.min(bytes / BYTES_PER_ENTRY, 1 << 30));
+    keys = new long[entries];
+    data = new long[entries];
+    scores = new long[entries];
+    mask = entries - 1;
+  }
+
+  /**
+   * Getter: returns the number of positions the table can hold.
+   *
+   * @return the number of slots.
+   */
+  int getCapacity() {
+    return keys.length;
+  }
+
+  /** Remove all entries from the table. */
+  void clear() {
+    Arrays.fill(keys, 0);
+    Arrays.fill(data, 0);
+    Arrays.fill(scores, 0);
+  }
+
+  /**
+   * Start a new search. Entries of earlier searches stay in the table, but are replaced before any
+   * entry of the new search.
+   */
+  void newSearch() {
+    generation = (generation + 1) & 0xFF;
+  }
+
+  /**
+   * Look up a position.
+   *
+   * @param key the Zobrist key of the position.
+   * @param entry the object the content of the slot is copied to.
+   * @return true if the position was found, false otherwise.
+   */
+  boolean probe(long key, Entry entry) {
+    int slot = (int) key & mask;
+    long slotData = data[slot];
+    long scoreBits = scores[slot];
+    if ((slotData & USED) == 0 || (keys[slot] ^ slotData ^ scoreBits) != key) {
+      return false;
+    }
+    entry.move = (int) (slotData & ((1 << MOVE_BITS) - 1));
+    entry.depth = (int) (slotData >>> DEPTH_SHIFT) & ((1 << DEPTH_BITS) - 1);
+    entry.bound = (int) (slotData >>> BOUND_SHIFT) & ((1 << BOUND_BITS) - 1);
+    entry.score = Double.longBitsToDouble(scoreBits);
+    entry.fromEarlierSearch = ((int) (slotData >>> GENERATION_SHIFT) & 0xFF) != generation;
+    return true;
+  }
+
+  /**
+   * Store the result of a search. An existing entry of the same position is always replaced, an
+   * entry of another position only if it stems from an earlier search or was not searched deeper.
+   *
+   * @param key the Zobrist key of the position.
+   * @param depth the depth the position was searched to.
+   * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+   * @param score the result of the search.
+   * @param move the best move, or {@link Move#NONE}.
+   */
+  void store(long key, int depth, int bound, double score, int move) {
+    int slot = (int) key & mask;
+    long slotData = data[slot];
+    boolean samePosition = (keys[slot] ^ slotData ^ scores[slot]) == key;
+    if ((slotData & USED) != 0 && !samePosition) {
+      int storedGeneration = (int) (slotData >>> GENERATION_SHIFT) & 0xFF;
+      int storedDepth = (int) (slotData >>> DEPTH_SHIFT) & ((1 << DEPTH_BITS) - 1);
+      if (storedGeneration == generation && storedDepth > depth) {
+        return;
+      }
+    } else if ((slotData & USED) != 0 && move == Move.NONE) {
+      move = (int) (slotData & ((1 << MOVE_BITS) - 1));
+    }
+    long newData =
+        USED
+            | ((long) generation << GENERATION_SHIFT)
+            | ((long) bound << BOUND_SHIFT)
+            | ((long) depth << DEPTH_SHIFT)
+            | move;
+    long scoreBits = Double.doubleToRawLongBits(score);
+    keys[slot] = key ^ newData ^ scoreBits;
+    data[slot] = newData;
+    scores[slot] = scoreBits;
+  }
+}
@@ -165,6 +165,19 @@ public class ChessController implements Controller, PropertyChangeListener {
     moveWorker.execute();
   }
 
+  /**
+   * Cancel the KI calculation task if it is still running. The search gives up as soon as possible
+   * and the KI does not make its move, so the game is not changed afterwards. The GUI does not wait
+   * for the task to finish.
+   */
+  private void cancelKiMove() {
+    if (moveWorker != null && !moveWorker.isDone()) {
+      moveWorker.cancel(true);
+      model.getMiniMax().cancelSearch();
+    }
+    moveWorker = null;
+  }
+
   @Override
   public Optional<Cell> calculateGameFieldPosition(int x, int y) {
     int drawBoardXStart = view.getDrawBoard().getBorderX();
@@ -191,7 +204,7 @@ public class ChessController implements Controller, PropertyChangeListener {
           rowValue = row - 1;
         }
       }
-      return Optional.of(new Cell(columnValue, rowValue));
+      return Optional.of(Cell.of(columnValue, rowValue));
     }
   }
 
@@ -212,6 +225,8 @@ public class ChessController implements Controller, PropertyChangeListener {
 
   @Override
   public void resetGame() {
+    cancelKiMove();
+    model.getMiniMax().stopPondering();
     model = new Chess();
     view = new ChessView(model, this);
     moveStartPoint = Optional.empty();
@@ -226,6 +241,8 @@ public class ChessController implements Controller, PropertyChangeListener {
 
   @Override
   public void dispose() {
+    cancelKiMove();
+    model.getMiniMax().stopPondering();
     model.removePropertyChangeListener(view);
   }
 
@@ -6,6 +6,8 @@ import chess.model.GameMode;
 import chess.model.Model;
 import chess.model.Phase;
 import chess.model.Player;
+import chess.model.SearchMode;
+import chess.model.SearchProgress;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
@@ -32,6 +34,7 @@ import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -71,6 +74,7 @@ public class ChessView extends JFrame implements View, PropertyChangeListener {
   private Dimension gameWindowDim = new Dimension(600, 600);
   private JLabel topText;
   private JPanel topBar;
+  private JPanel bottomBar;
 
   private static final int TOP_BOTTOM_HEIGHT = 30;
 
@@ -100,7 +104,7 @@ public class ChessView extends JFrame implements View, PropertyChangeListener {
     setUpGameWindow();
     topBar = createTopBar();
     gameWindow.getContentPane().add(topBar, BorderLayout.NORTH);
-    JPanel bottomBar = createBottomBar();
+    bottomBar = createBottomBar();
     gameWindow.getContentPane().add(bottomBar, BorderLayout.SOUTH);
     JButton bottomButton = createBottomButton();
     bottomBar.add(bottomButton, BorderLayout.CENTER);
@@ -186,6 +190,39 @@ public class ChessView extends JFrame implements View, PropertyChangeListener {
     return bottomButton;
   }
 
+  /**
+   * Opens the dialog that lets the player choose the engine of the AI. If the dialog is closed
+   * without a choice, the AI keeps its current engine.
+   */
+  private void chooseEngineDialog() {
+    Object engine =
+        JOptionPane.showInputDialog(
+            gameWindow,
+            "Which engine should the AI use?",
+            "Choose an Engine",
+            JOptionPane.QUESTION_MESSAGE,
+            null,
+            SearchMode.values(),
+            model.getSearchMode());
+    if (engine != null) {
+      model.setSearchMode((SearchMode) engine);
+    }
+  }
+
+  /**
+   * Add the option to let the AI think on the time of the human player to the bottom panel. The
+   * option only makes sense against an AI that can ponder, so it is only offered in single player
+   * games with such an engine.
+   */
+  private void addPonderingOption() {
+    JCheckBox ponderingOption = new JCheckBox("Let the AI think on your time", model.isPondering());
+    ponderingOption.setBackground(TOP_BOTTOM_FILL);
+    ponderingOption.setForeground(TOP_FONT);
+    ponderingOption.addActionListener(e -> model.setPondering(ponderingOption.isSelected()));
+    bottomBar.add(ponderingOption);
+    bottomBar.revalidate();
+  }
+
   /** Re-color the elements of the dialog window. */
   private void customizeDialogWindows() {
     UIManager ui = new UIManager();
@@ -215,6 +252,10 @@ public class ChessView extends JFrame implements View, PropertyChangeListener {
       this.model.setGameMode(GameMode.HOTSEAT);
     } else if (userChoice == 1) {
       this.model.setGameMode(GameMode.SINGLE);
+      chooseEngineDialog();
+      if (model.getSearchMode().canPonder()) {
+        addPonderingOption();
+      }
     } else if (userChoice == 2) {
       this.model.setGameMode(GameMode.NETWORK);
       this.model.getState().setCurrentPhase(Phase.WAITING);
@@ -513,6 +554,10 @@ public class ChessView extends JFrame implements View, PropertyChangeListener {
    * @param event The event that has been fired by the chess.model.
    */
   private void handleChangeEvent(PropertyChangeEvent event) {
+    if (event.getPropertyName().equals(Model.KI_PROGRESS)) {
+      showKiProgress((SearchProgress) event.getNewValue());
+      return;
+    }
     if (event.getPropertyName().equals(model.NETWORK_UPDATE)) {
       gameWindow.validate();
       gameWindow.repaint();
@@ -530,4 +575,25 @@ public class ChessView extends JFrame implements View, PropertyChangeListener {
       topText.setText("Current Player: " + model.getState().getCurrentPlayer());
     }
   }
+
+  /**
+   * Show how far the KI has come with its search in the top bar, as long as it is still thinking.
+   *
+   * @param progress the progress of the search.
+   */
+  private void showKiProgress(SearchProgress progress) {
+    if (progress.isFinished()
+        || model.getState().getCurrentPhase() != Phase.RUNNING
+        || model.getState().getCurrentPlayer() != Player.BLACK) {
+      return;
+    }
+    topText.setText(
+        "Current Player: "
+            + model.getState().getCurrentPlayer()
+            + " (thinking: depth "
+            + progress.getDepth()
+            + ", "
+            + progress.getNodes()
+            + " positions)");
+  }
 }
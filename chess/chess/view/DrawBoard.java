@@ -14,7 +14,6 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
 
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import javax.swing.JPanel;
@@ -172,19 +171,19 @@ class DrawBoard extends JPanel {
     paintPossibleMovesForSelectedCell(g2);
 
     if (!(model.getState().getCurrentPhase() == Phase.WAITING)) {
-      Map<chess.model.Cell, chess.model.Player> occupiedCellMap =
-          model.getState().getField().getCellsOccupiedWithPawns();
-
-      occupiedCellMap.forEach(
-          (cell, player) ->
-              drawPawn(
-                  player,
-                  g,
-                  PAWN_PADDING,
-                  borderX + cell.getColumn() * cellSize.width,
-                  borderY + ((LAST_ROW - cell.getRow()) * cellSize.height),
-                  cellSize.width,
-                  cellSize.height));
+      model
+          .getState()
+          .getField()
+          .forEachPawn(
+              (column, row, player) ->
+                  drawPawn(
+                      player,
+                      g,
+                      PAWN_PADDING,
+                      borderX + column * cellSize.width,
+                      borderY + ((LAST_ROW - row) * cellSize.height),
+                      cellSize.width,
+                      cellSize.height));
     }
   }
 